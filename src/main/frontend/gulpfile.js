@@ -15,10 +15,24 @@
  * limitations under the License.
  */
 const gulp        = require('gulp');
-const sass        = require('gulp-sass')(require('sass'));
+const sassCompiler = require('sass');
+const sass        = require('gulp-sass')(sassCompiler);
 const header      = require('gulp-header');
 const cleanCSS   = require('gulp-clean-css');
 var concatCss = require('gulp-concat-css');
+const subsetFont  = require('subset-font');
+const postcss     = require('postcss');
+const sharp       = require('sharp');
+const crypto      = require('crypto');
+const fs          = require('fs');
+const path        = require('path');
+const zlib        = require('zlib');
+
+const starterDist = './dist/initial-content/content/starter';
+// the ACL/ACE editor assets are not initial content, see EditorResources
+const editorStarterDist = './dist/editor-content/content/starter';
+const manifestFile = './dist/META-INF/assets-manifest.json';
+const criticalCssFile = './dist/META-INF/critical-css.json';
 
 const apache2License = [
 '/*',
@@ -40,9 +54,49 @@ const apache2License = [
 ''
 ].join('\n');
 
+/**
+ * The code points the fonts are subset to, which is the "latin" range that
+ * covers the text of the starter pages. The unicode-range of the @font-face
+ * rules in _fonts.scss is generated from the same list.
+ */
+const fontCodePoints = [
+    [0x0020, 0x007E], [0x00A0, 0x00FF], [0x0131, 0x0131], [0x0152, 0x0153],
+    [0x02C6, 0x02C6], [0x02DA, 0x02DA], [0x02DC, 0x02DC], [0x2000, 0x206F],
+    [0x2074, 0x2074], [0x20AC, 0x20AC], [0x2122, 0x2122], [0x2191, 0x2191],
+    [0x2193, 0x2193], [0x2212, 0x2212], [0x2215, 0x2215], [0xFEFF, 0xFEFF],
+    [0xFFFD, 0xFFFD]
+];
+
+function hex(codePoint) {
+    return codePoint.toString(16).toUpperCase().padStart(4, '0');
+}
+
+/**
+ * The fontCodePoints as a CSS unicode-range value
+ */
+function fontUnicodeRange() {
+    return fontCodePoints
+        .map(([from, to]) => from == to ? 'U+' + hex(from) : 'U+' + hex(from) + '-' + hex(to))
+        .join(', ');
+}
+
+/**
+ * Removes the output of the previous build, which would otherwise keep the
+ * hashed files of every earlier version of an asset in the bundle.
+ */
+gulp.task('clean', function(done) {
+    fs.rmSync('./dist', { recursive: true, force: true });
+    done();
+});
+
 gulp.task('styles', function() {
+    // gulp-sass compiles with compileStringAsync, so the functions use the modern API
     return gulp.src('./src/scss/*.scss')
-        .pipe(sass().on('error', sass.logError))
+        .pipe(sass({
+            functions: {
+                'font-unicode-range()': () => new sassCompiler.SassString(fontUnicodeRange(), { quotes: false })
+            }
+        }).on('error', sass.logError))
         .pipe(cleanCSS())
         .pipe(concatCss('bundle.css'))
         .pipe(header(apache2License))
@@ -50,8 +104,200 @@ gulp.task('styles', function() {
 });
 
 gulp.task('assets', function() {
-    return gulp.src(['./src/{fonts,img}/**/*'], { encoding: false })
-        .pipe(gulp.dest('./dist/initial-content/content/starter'));
+    return gulp.src(['./src/img/**/*'], { encoding: false })
+        .pipe(gulp.dest(starterDist + '/img'));
+});
+
+gulp.task('editor-assets', function() {
+    return gulp.src(['./src/access/**/*'], { encoding: false })
+        .pipe(gulp.dest(editorStarterDist + '/access'));
+});
+
+function fontGlyphText() {
+    let text = '';
+    for (const [from, to] of fontCodePoints) {
+        for (let cp = from; cp <= to; cp++) {
+            text += String.fromCodePoint(cp);
+        }
+    }
+    return text;
+}
+
+gulp.task('fonts', async function() {
+    const dir = path.join(starterDist, 'fonts');
+    fs.mkdirSync(dir, { recursive: true });
+    const text = fontGlyphText();
+    for (const name of fs.readdirSync('./src/fonts').filter(n => n.endsWith('.woff'))) {
+        const font = fs.readFileSync(path.join('./src/fonts', name));
+        const baseName = name.substring(0, name.length - '.woff'.length);
+        // woff2 for current browsers and a woff fallback, both with only the glyphs in use
+        fs.writeFileSync(path.join(dir, baseName + '.woff2'), await subsetFont(font, text, { targetFormat: 'woff2' }));
+        fs.writeFileSync(path.join(dir, baseName + '.woff'), await subsetFont(font, text, { targetFormat: 'woff' }));
+    }
+});
+
+/**
+ * The heights of the gradient variants, keep in sync with the Gradient rules
+ * in index.scss. The gradient is a tall narrow strip, so it is stepped by
+ * height rather than width.
+ */
+const gradientHeights = [270, 540, 1080];
+
+gulp.task('images', async function() {
+    const dir = path.join(starterDist, 'img');
+    fs.mkdirSync(dir, { recursive: true });
+    for (const height of gradientHeights) {
+        const resized = sharp('./src/img/gradient.jpg').resize({ height: height });
+        const name = path.join(dir, 'gradient-' + height);
+        await resized.clone().avif({ quality: 50 }).toFile(name + '.avif');
+        await resized.clone().webp({ quality: 75 }).toFile(name + '.webp');
+        // for the browsers without image-set() support
+        await resized.clone().jpeg({ quality: 80, mozjpeg: true }).toFile(name + '.jpg');
+    }
+});
+
+/**
+ * Returns the name of the file with a hash of the content inserted
+ * before the extension, e.g. bundle.css becomes bundle.0123456789.css
+ */
+function hashedName(name, content) {
+    const hash = crypto.createHash('sha256').update(content).digest('hex').substring(0, 10);
+    const ext = path.extname(name);
+    return name.substring(0, name.length - ext.length) + '.' + hash + ext;
+}
+
+/**
+ * Writes a content hashed copy of each file in the folder and records the
+ * mapping from the plain name to the hashed name in the manifest.
+ */
+function revisionFolder(base, folder, manifest, transform) {
+    const dir = path.join(base, folder);
+    if (!fs.existsSync(dir)) {
+        return;
+    }
+    for (const name of fs.readdirSync(dir).sort()) {
+        const file = path.join(dir, name);
+        if (!fs.statSync(file).isFile()) {
+            continue;
+        }
+        let content = fs.readFileSync(file);
+        if (transform) {
+            content = Buffer.from(transform(content.toString('utf8')), 'utf8');
+        }
+        const hashed = hashedName(name, content);
+        fs.writeFileSync(path.join(dir, hashed), content);
+        manifest[folder + '/' + name] = folder + '/' + hashed;
+    }
+}
+
+gulp.task('revision', function(done) {
+    const manifest = {};
+    // fonts and images first as the stylesheets refer to them
+    revisionFolder(starterDist, 'fonts', manifest);
+    revisionFolder(starterDist, 'img', manifest);
+    revisionFolder(editorStarterDist, 'access', manifest);
+    revisionFolder(starterDist, 'css', manifest, function(css) {
+        // point the url(..) references at the hashed names
+        return css.replace(/url\((['"]?)\.\.\/([^'")?#]+)([^'")]*)\1\)/g, function(match, quote, ref, suffix) {
+            const hashed = manifest[ref];
+            return hashed ? 'url(' + quote + '../' + hashed + suffix + quote + ')' : match;
+        });
+    });
+    fs.mkdirSync(path.dirname(manifestFile), { recursive: true });
+    fs.writeFileSync(manifestFile, JSON.stringify(manifest, null, 2) + '\n');
+    done();
+});
+
+/**
+ * The selectors of the rules each page needs for the first paint. The rest
+ * of the stylesheet is loaded asynchronously.
+ */
+const layoutSelectors = [/^\*$/, /^(html|body|h1|h2|p)\b/, /^a\b/, /^\.Grid\b/, /^\.Home-Grid\b/];
+const criticalSelectors = {
+    home: layoutSelectors,
+    login: layoutSelectors.concat([/^h3\b/, /^button\b/, /^\.error\b/]),
+    acl: layoutSelectors.concat([/^button\b/]),
+    ace: layoutSelectors.concat([/^button\b/])
+};
+
+/**
+ * Placeholder for the URL of /content/starter in the critical CSS, which the
+ * AssetManifest service replaces as the CSS is no longer relative to its folder
+ * once inlined.
+ */
+const starterUrlPlaceholder = '{starter}';
+
+function extractCriticalCss(css, patterns) {
+    const root = postcss.parse(css);
+    root.walkComments(comment => comment.remove());
+    root.walkRules(rule => {
+        if (!rule.selectors.some(selector => patterns.some(pattern => pattern.test(selector.trim())))) {
+            rule.remove();
+        }
+    });
+    root.walkAtRules('media', media => {
+        if (!media.nodes || media.nodes.length === 0) {
+            media.remove();
+        }
+    });
+    return root.toString().replace(/url\((['"]?)\.\.\//g, 'url($1' + starterUrlPlaceholder + '/');
+}
+
+gulp.task('critical', function(done) {
+    const manifest = JSON.parse(fs.readFileSync(manifestFile, 'utf8'));
+    const bundle = path.join(starterDist, manifest['css/bundle.css'] || 'css/bundle.css');
+    const css = fs.readFileSync(bundle, 'utf8');
+    const criticalCss = {};
+    for (const [template, patterns] of Object.entries(criticalSelectors)) {
+        criticalCss[template] = extractCriticalCss(css, patterns);
+    }
+    fs.writeFileSync(criticalCssFile, JSON.stringify(criticalCss, null, 2) + '\n');
+    done();
+});
+
+/**
+ * Text assets that are worth serving compressed
+ */
+const compressibleExtensions = ['.css', '.js', '.svg', '.html', '.txt'];
+
+/**
+ * Writes a .gz and a .br sibling for each text asset, which are served
+ * for a matching Accept-Encoding instead of compressing at runtime.
+ */
+function compressFolder(dir) {
+    for (const entry of fs.readdirSync(dir, { withFileTypes: true })) {
+        const file = path.join(dir, entry.name);
+        if (entry.isDirectory()) {
+            compressFolder(file);
+        } else if (compressibleExtensions.includes(path.extname(entry.name))) {
+            const content = fs.readFileSync(file);
+            const variants = {
+                '.gz': zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }),
+                '.br': zlib.brotliCompressSync(content, {
+                    params: {
+                        [zlib.constants.BROTLI_PARAM_MODE]: zlib.constants.BROTLI_MODE_TEXT,
+                        [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+                        [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length
+                    }
+                })
+            };
+            for (const [ext, compressed] of Object.entries(variants)) {
+                // only keep a variant that actually saves something
+                if (compressed.length < content.length) {
+                    fs.writeFileSync(file + ext, compressed);
+                }
+            }
+        }
+    }
+}
+
+gulp.task('compress', function(done) {
+    for (const dir of [starterDist, editorStarterDist]) {
+        if (fs.existsSync(dir)) {
+            compressFolder(dir);
+        }
+    }
+    done();
 });
 
-gulp.task('default', gulp.series(gulp.parallel('styles', 'assets')));
\ No newline at end of file
+gulp.task('default', gulp.series('clean', gulp.parallel('styles', 'assets', 'editor-assets', 'fonts', 'images'), 'revision', 'critical', 'compress'));
\ No newline at end of file
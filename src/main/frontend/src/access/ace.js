@@ -0,0 +1,927 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// NOTE: this code expects the 'existingRestrictionNames' variable
+//    to be defined before this is script is invoked
+if (typeof existingRestrictionNames == 'undefined') {
+    console.error("Expected 'existingRestrictionNames' variable to be defined");
+}
+
+/** bits of the privilege state in the compact JSON document */
+const STATE_GRANTED = 1;
+const STATE_DENIED = 2;
+const STATE_ALLOW_EXISTS = 4;
+const STATE_DENY_EXISTS = 8;
+
+/** bits of the restriction flags in the compact JSON document */
+const RESTRICTION_DENY = 1;
+const RESTRICTION_EXISTS = 2;
+
+/** with up to this many privileges the whole tree starts expanded */
+const EXPAND_ALL_LIMIT = 100;
+
+/** number of extra rows rendered above and below the visible ones */
+const ROW_OVERSCAN = 10;
+
+/**
+ * The allow/deny state of the privileges and their aggregate relationships as
+ * the integer index tables emitted by the server. Each privilege has one slot
+ * for the allow and one for the deny column, where the slot index is the
+ * privilege index * 2 + 1 for the deny column.
+ */
+let privilegeState = null;
+
+/**
+ * create the privilege state from the names and index tables of the server
+ * @param data the parsed compact JSON document or privilege table
+ * @param canModify true if the current user can modify the ACE
+ * @param rowFor function that returns the rendered table row of a privilege index, if any
+ */
+const createPrivilegeState = (data, canModify, rowFor) => {
+    const count = data.names.length;
+    return {
+        names: data.names,
+        count: count,
+        canModify: canModify,
+        indexOf: new Map(data.names.map((name, i) => [name, i])),
+        aggregateOffsets: Int32Array.from(data.aggregateOffsets),
+        aggregateIndices: Int32Array.from(data.aggregateIndices),
+        containerOffsets: Int32Array.from(data.containerOffsets),
+        containerIndices: Int32Array.from(data.containerIndices),
+        checked: new Uint8Array(count * 2),
+        // checked because an aggregate privilege that contains it is checked
+        implied: new Uint8Array(count * 2),
+        // the slots changed since the last write to the DOM
+        changedSlots: new Int32Array(count * 2),
+        changedFlags: new Uint8Array(count * 2),
+        changedCount: 0,
+        rowFor: rowFor
+    };
+};
+
+/**
+ * remember that the slot needs to be written to the DOM
+ */
+const markSlotChanged = (state, slot) => {
+    if (!state.changedFlags[slot]) {
+        state.changedFlags[slot] = 1;
+        state.changedSlots[state.changedCount++] = slot;
+    }
+};
+
+/**
+ * check or uncheck a privilege because an aggregate privilege that contains it changed
+ */
+const setAggregateSlot = (state, index, column, checked) => {
+    const slot = index * 2 + column;
+    if ((checked && !state.checked[slot]) ||
+        (!checked && state.implied[slot])) {
+        let ancestorChecked = false;
+        if (!checked) {
+            // check if any ancestor checkboxes are still checked
+            for (let k = state.containerOffsets[index]; k < state.containerOffsets[index + 1] && !ancestorChecked; k++) {
+                ancestorChecked = state.checked[state.containerIndices[k] * 2 + column] == 1;
+            }
+        }
+        if (!ancestorChecked) {
+            state.checked[slot] = checked ? 1 : 0;
+            state.implied[slot] = checked ? 1 : 0;
+            markSlotChanged(state, slot);
+        }
+    }
+};
+
+/**
+ * check or uncheck a privilege and set/unset the privileges it aggregates
+ */
+const applyPrivilegeSlot = (state, index, column, checked) => {
+    state.checked[index * 2 + column] = checked ? 1 : 0;
+    markSlotChanged(state, index * 2 + column);
+    for (let k = state.aggregateOffsets[index]; k < state.aggregateOffsets[index + 1]; k++) {
+        setAggregateSlot(state, state.aggregateIndices[k], column, checked);
+    }
+};
+
+/**
+ * write the changed slots to the rendered rows, without reading anything from
+ * the DOM in between so the browser only has to lay out the page once
+ */
+const writeChangedSlots = (state) => {
+    for (let k = 0; k < state.changedCount; k++) {
+        const slot = state.changedSlots[k];
+        state.changedFlags[slot] = 0;
+        const row = state.rowFor(slot >> 1);
+        if (row) {
+            const checked = state.checked[slot] == 1;
+            const td = row.cells[(slot & 1) + 1];
+            const checkbox = td.querySelector("input.granted_or_denied");
+            checkbox.checked = checked;
+            checkbox.disabled = !state.canModify || state.implied[slot] == 1;
+            td.querySelectorAll("input.delete").forEach((input) => {
+                input.disabled = checked;
+            });
+            td.querySelectorAll(".restriction-state input").forEach((input) => {
+                input.disabled = !state.canModify || !checked;
+            });
+            td.querySelector("span.editRestrictions").style.display = checked ? '' : 'none';
+        }
+    }
+    state.changedCount = 0;
+};
+
+/**
+ * check the privileges aggregated by the privileges that are already checked
+ */
+const preprocessCheckedSlots = (state) => {
+    for (let slot = 0; slot < state.count * 2; slot++) {
+        if (state.checked[slot]) {
+            applyPrivilegeSlot(state, slot >> 1, slot & 1, true);
+        }
+    }
+    writeChangedSlots(state);
+};
+
+/**
+ * In the compact rendering mode the state of the privileges table is kept in
+ * this object and only the rows that are scrolled into view are rendered.
+ * It extends the privilege state.
+ */
+let tree = null;
+
+/**
+ * build the tree state from the compact JSON document
+ * @param data the parsed compact JSON document
+ * @param canModify true if the current user can modify the ACE
+ */
+const createPrivilegeTree = (data, canModify) => {
+    const count = data.names.length;
+    const t = Object.assign(createPrivilegeState(data, canModify, (index) => t.rendered.get(index)), {
+        parents: data.parents,
+        depths: data.depths,
+        exists: new Uint8Array(count * 2),
+        // the [name, value] pairs of the hidden restriction inputs of each slot
+        restrictionInputs: new Array(count * 2),
+        restrictionLabels: new Array(count * 2),
+        hasChildren: new Uint8Array(count),
+        expanded: new Uint8Array(count),
+        extraCss: new Array(count).fill(""),
+        visible: [],
+        rendered: new Map(),
+        rowHeight: 0
+    });
+
+    for (let i = 0; i < count; i++) {
+        const state = data.states[i];
+        t.checked[i * 2] = (state & STATE_GRANTED) != 0 ? 1 : 0;
+        t.checked[i * 2 + 1] = (state & STATE_DENIED) != 0 ? 1 : 0;
+        t.exists[i * 2] = (state & STATE_ALLOW_EXISTS) != 0 ? 1 : 0;
+        t.exists[i * 2 + 1] = (state & STATE_DENY_EXISTS) != 0 ? 1 : 0;
+        t.restrictionInputs[i * 2] = [];
+        t.restrictionInputs[i * 2 + 1] = [];
+        t.restrictionLabels[i * 2] = [];
+        t.restrictionLabels[i * 2 + 1] = [];
+        if (data.parents[i] >= 0) {
+            t.hasChildren[data.parents[i]] = 1;
+        }
+    }
+
+    data.restrictions.forEach((entry) => {
+        const column = entry[1] & RESTRICTION_DENY;
+        const slot = entry[0] * 2 + column;
+        const name = data.names[entry[0]];
+        const restrictionName = data.restrictionNames[entry[2]];
+        const suffix = column ? "Deny" : "Allow";
+        entry[3].forEach((rvalue) => {
+            t.restrictionInputs[slot].push(["restriction@" + name + "@" + restrictionName + "@" + suffix, rvalue]);
+        });
+        t.restrictionLabels[slot].push(restrictionName);
+        if (t.checked[slot] && (entry[1] & RESTRICTION_EXISTS) != 0) {
+            existingRestrictionNames[column ? "deny" : "allow"].push(name + "@" + restrictionName);
+        }
+    });
+    if (canModify) {
+        data.deletes.forEach((entry) => {
+            const column = entry[1] & RESTRICTION_DENY;
+            const name = data.names[entry[0]];
+            t.restrictionInputs[entry[0] * 2 + column].push(
+                ["restriction@" + name + "@" + data.restrictionNames[entry[2]] + "@Delete", column ? "deny" : "allow"]);
+        });
+    }
+    t.restrictionLabels = t.restrictionLabels.map((names) => names.length == 0 ? "No Restrictions" : names.join(", "));
+
+    // the same css markers for the tree-ish view that the server side rendering adds
+    const seenSiblings = new Set();
+    let lastBranch = true;
+    for (let i = count - 1; i > 0; i--) {
+        if (lastBranch) {
+            t.extraCss[i] += " lastBranch";
+        }
+        if (lastBranch && data.depths[i] == 1) {
+            lastBranch = false;
+        }
+        const siblingsKey = data.parents[i] + "/" + data.depths[i];
+        if (!seenSiblings.has(siblingsKey)) {
+            t.extraCss[i] += " lastSibling";
+            seenSiblings.add(siblingsKey);
+        }
+    }
+    return t;
+};
+
+/**
+ * recalculate which privileges are visible with the current expanded branches
+ */
+const updateVisiblePrivileges = () => {
+    const shown = new Uint8Array(tree.count);
+    tree.visible = [];
+    for (let i = 0; i < tree.count; i++) {
+        const parent = tree.parents[i];
+        if (parent < 0 || parent > i || (shown[parent] && tree.expanded[parent])) {
+            shown[i] = 1;
+            tree.visible.push(i);
+        }
+    }
+};
+
+/**
+ * create the table row of a privilege from the row and cell templates
+ * @param index the index of the privilege
+ */
+const createTreeRow = (index) => {
+    const name = tree.names[index];
+    const row = document.getElementById("privilege-row").content.firstElementChild.cloneNode(true);
+    const cellTemplate = document.getElementById("privilege-cell").content.firstElementChild;
+    row.setAttribute("data-privilege", name);
+    row.setAttribute("data-index", index);
+    row.firstElementChild.className = "depth" + tree.depths[index] + tree.extraCss[index];
+    row.querySelector("label").textContent = name;
+    const toggle = row.querySelector("button.tree-toggle");
+    if (tree.hasChildren[index]) {
+        toggle.hidden = false;
+        toggle.setAttribute("aria-expanded", tree.expanded[index] ? "true" : "false");
+        toggle.textContent = tree.expanded[index] ? "▾" : "▸";
+    }
+
+    ["allow", "deny"].forEach((value, column) => {
+        const slot = index * 2 + column;
+        const checked = tree.checked[slot] == 1;
+        const cell = cellTemplate.cloneNode(true);
+
+        const checkbox = cell.querySelector("input.granted_or_denied");
+        checkbox.name = "privilege@" + name;
+        checkbox.value = value;
+        checkbox.checked = checked;
+        checkbox.disabled = !tree.canModify || tree.implied[slot] == 1;
+
+        const deleteInput = cell.querySelector("input.delete");
+        if (tree.canModify && tree.exists[slot]) {
+            deleteInput.name = "privilege@" + name + "@Delete";
+            deleteInput.value = value;
+            deleteInput.disabled = checked;
+        } else {
+            deleteInput.remove();
+        }
+
+        const editRestrictions = cell.querySelector("span.editRestrictions");
+        editRestrictions.style.display = checked ? "" : "none";
+        editRestrictions.querySelector("a").id = "edit-" + value + "-restriction@" + name;
+        editRestrictions.querySelector("span.restriction-details").textContent = tree.restrictionLabels[slot];
+        const restrictionState = editRestrictions.querySelector("span.restriction-state");
+        tree.restrictionInputs[slot].forEach(([inputName, inputValue]) => {
+            const input = document.createElement("input");
+            input.type = "hidden";
+            input.name = inputName;
+            input.value = inputValue;
+            input.disabled = !tree.canModify || !checked;
+            restrictionState.appendChild(input);
+        });
+        row.appendChild(cell);
+    });
+    return row;
+};
+
+/**
+ * create a row that takes up the height of the rows that are not rendered
+ */
+const createSpacerRow = (height) => {
+    const row = document.createElement("tr");
+    row.className = "spacer";
+    const td = document.createElement("td");
+    td.colSpan = 3;
+    td.style.height = height + "px";
+    row.appendChild(td);
+    return row;
+};
+
+/**
+ * render the rows that are scrolled into the viewport, reusing the rows that
+ * are already rendered
+ */
+const renderVisibleRows = () => {
+    const viewport = document.getElementById("privileges-viewport");
+    const rowHeight = tree.rowHeight || 32;
+    const height = viewport.clientHeight || window.innerHeight;
+    const first = Math.max(0, Math.floor(viewport.scrollTop / rowHeight) - ROW_OVERSCAN);
+    const last = Math.min(tree.visible.length, Math.ceil((viewport.scrollTop + height) / rowHeight) + ROW_OVERSCAN);
+
+    const rendered = new Map();
+    const fragment = document.createDocumentFragment();
+    fragment.appendChild(createSpacerRow(first * rowHeight));
+    for (let v = first; v < last; v++) {
+        const index = tree.visible[v];
+        const row = tree.rendered.get(index) || createTreeRow(index);
+        row.classList.toggle("odd", v % 2 == 0);
+        rendered.set(index, row);
+        fragment.appendChild(row);
+    }
+    fragment.appendChild(createSpacerRow((tree.visible.length - last) * rowHeight));
+    tree.rendered = rendered;
+    document.querySelector("table#privileges tbody").replaceChildren(fragment);
+
+    if (!tree.rowHeight && rendered.size > 0) {
+        // now that there is a row the real height is known
+        tree.rowHeight = rendered.values().next().value.offsetHeight || rowHeight;
+        if (tree.rowHeight != rowHeight) {
+            renderVisibleRows();
+        }
+    }
+};
+
+/**
+ * re-render the rows after the tree state changed
+ */
+const refreshTreeRows = () => {
+    tree.rendered.clear();
+    renderVisibleRows();
+};
+
+/**
+ * expand or collapse the aggregate privilege branch of the row
+ */
+const toggleTreeBranch = (index) => {
+    tree.expanded[index] = tree.expanded[index] ? 0 : 1;
+    updateVisiblePrivileges();
+    refreshTreeRows();
+};
+
+/**
+ * copy the restriction inputs of a rendered row back to the tree state after
+ * the restrictions dialog changed them
+ */
+const syncTreeRestrictions = (privilegeName, column) => {
+    const index = tree.indexOf.get(privilegeName);
+    const row = tree.rendered.get(index);
+    if (row) {
+        const td = row.children[column + 1];
+        tree.restrictionInputs[index * 2 + column] = Array.from(td.querySelectorAll("span.restriction-state input"))
+            .map((input) => [input.name, input.value]);
+        tree.restrictionLabels[index * 2 + column] = td.querySelector("span.restriction-details").textContent;
+    }
+};
+
+/**
+ * remove the form fields added by an earlier serializeTree
+ */
+const removeSerializedFields = (form) => {
+    form.querySelectorAll("input.serialized-privilege").forEach((input) => input.remove());
+};
+
+/**
+ * replace the inputs of the rendered rows with the form fields of all the
+ * privileges before the form is submitted
+ */
+const serializeTree = (form) => {
+    // a page restored from the back/forward cache still has the fields of the last submit
+    removeSerializedFields(form);
+    document.querySelectorAll("table#privileges tbody input").forEach((input) => {
+        input.disabled = true;
+    });
+    const fragment = document.createDocumentFragment();
+    const addField = (name, value) => {
+        const input = document.createElement("input");
+        input.type = "hidden";
+        input.className = "serialized-privilege";
+        input.name = name;
+        input.value = value;
+        fragment.appendChild(input);
+    };
+    for (let i = 0; i < tree.count; i++) {
+        ["allow", "deny"].forEach((value, column) => {
+            const slot = i * 2 + column;
+            if (tree.checked[slot]) {
+                if (!tree.implied[slot]) {
+                    addField("privilege@" + tree.names[i], value);
+                }
+                tree.restrictionInputs[slot].forEach(([name, rvalue]) => addField(name, rvalue));
+            } else if (tree.exists[slot]) {
+                addField("privilege@" + tree.names[i] + "@Delete", value);
+            }
+        });
+    }
+    form.appendChild(fragment);
+};
+
+const privilegesData = document.getElementById("ace-privileges-data");
+if (privilegesData) {
+    tree = createPrivilegeTree(JSON.parse(privilegesData.textContent),
+        privilegesData.getAttribute("data-can-modify") == "true");
+    privilegeState = tree;
+    // nothing is rendered yet, so this only updates the state
+    preprocessCheckedSlots(tree);
+
+    // start with the top level branches, and the ones with checked privileges, expanded
+    for (let i = 0; i < tree.count; i++) {
+        if (tree.count <= EXPAND_ALL_LIMIT || tree.parents[i] < 0) {
+            tree.expanded[i] = 1;
+        }
+        if (tree.checked[i * 2] || tree.checked[i * 2 + 1]) {
+            for (let p = tree.parents[i]; p >= 0; p = tree.parents[p]) {
+                tree.expanded[p] = 1;
+            }
+        }
+    }
+    updateVisiblePrivileges();
+
+    document.getElementById("privileges-viewport").classList.add("virtual");
+    renderVisibleRows();
+
+    let renderPending = false;
+    const scheduleRender = () => {
+        if (!renderPending) {
+            renderPending = true;
+            requestAnimationFrame(() => {
+                renderPending = false;
+                renderVisibleRows();
+            });
+        }
+    };
+    document.getElementById("privileges-viewport").addEventListener("scroll", scheduleRender, { passive: true });
+    window.addEventListener("resize", scheduleRender);
+
+    const modifyAceForm = document.getElementById("modifyAceForm");
+    modifyAceForm.addEventListener("submit", () => serializeTree(modifyAceForm));
+    window.addEventListener("pageshow", (e) => {
+        if (e.persisted) {
+            // back from the submit, so render the rows again with their inputs enabled
+            removeSerializedFields(modifyAceForm);
+            refreshTreeRows();
+        }
+    });
+}
+
+/**
+ * attach click handler for delete ACE button
+ */
+const deleteButton = document.getElementById("deleteButton");
+if (deleteButton) {
+    deleteButton.addEventListener('click', (e) => {
+        e.preventDefault();
+        document.getElementById("deleteAceForm").submit();
+    });
+}
+
+/** reference to the dialog */
+const restrictionsDialog = document.getElementById('restrictionsDialog');
+
+/** the restriction rows of the dialog, which do not change while the page is open */
+const restrictionRows = Array.from(restrictionsDialog.querySelectorAll('p.restriction-row'));
+const restrictionRowsByName = new Map(restrictionRows.map((row) => [row.getAttribute('data-restriction'), row]));
+
+/**
+ * populate the specified restriction state in the restrictions dialog
+ * @param rname the restriction name
+ * @param rvalues the restriction values array
+ */
+const addRestrictionForPrivilege = (rname, rvalues) => {
+    const row = restrictionRowsByName.get(rname);
+    if (row) {
+        const input = row.querySelector("input.declare-restriction");
+        input.checked = true;
+        // manually trigger the change handler
+        input.dispatchEvent(new Event("change", { bubbles: true }));
+
+        const p = input.closest("p");
+        // remove the old rows
+        p.querySelectorAll("span.restriction-value, span.restriction-values").forEach((span) => {
+            span.remove();
+        });
+        // iterate rvalues to add new rows
+        rvalues.forEach((rvalue) => {
+            addRestrictionValueRowFn({ target: p }, rvalue);
+        });
+    }
+};
+
+/**
+ * handler for links that open the restrictions modal dialog
+ */
+const showRestrictionsDialog = (e) => {
+    e.preventDefault();
+    if (typeof restrictionsDialog.showModal === "function") {
+        // populate the dialog with the current state
+        const c = e.target;
+        const privilegeName = c.closest("tr").getAttribute('data-privilege');
+        document.getElementById("for-privilege").textContent = privilegeName;
+
+        const td = c.closest("td");
+        const isAllow = "allow" == td.querySelector("input.granted_or_denied").value;
+        const form = document.getElementById("modifyAceRestrictionsForm");
+        form.setAttribute("data-privilege", privilegeName);
+        form.setAttribute("data-for-privilege-allow", isAllow);
+
+        // clear out the old dialog state
+        restrictionRows.forEach((row) => {
+            // uncheck it
+            const checkbox = row.querySelector("input.declare-restriction");
+            if (checkbox.checked) {
+                checkbox.checked = false;
+                // manually trigger the change handler
+                checkbox.dispatchEvent(new Event("change", { bubbles: true }));
+            }
+
+            // reset the value rows back to a neutral state
+            row.querySelectorAll("span.restriction-value, span.restriction-values").forEach((span) => {
+                span.remove();
+            });
+            addRestrictionValueRowFn({ target: row }, "");
+        });
+
+        // fill in the current restriction details to a temp obj
+        const rvaluesMap = {};
+        // loop through once to collect all the current values
+        td.querySelectorAll("span.restriction-state input").forEach((input) => {
+            const restrictionRegex = /^restriction@([^@]+)@([^@]+)(@(Allow|Deny))?$/;
+            const matches = restrictionRegex.exec(input.getAttribute("name"));
+            if (matches) {
+                const restrictionName = matches[2];
+                if (restrictionName) {
+                    const value = input.value;
+                    if (value) {
+                        if (!rvaluesMap[restrictionName]) {
+                            rvaluesMap[restrictionName] = {
+                                values: []
+                            };
+                        }
+                        if (value) {
+                            rvaluesMap[restrictionName]["values"].push(value);
+                        }
+                    }
+                }
+            }
+        });
+
+        // now loop through the collected items to do the work
+        Object.keys(rvaluesMap).forEach((rname) => {
+            const robj = rvaluesMap[rname];
+            addRestrictionForPrivilege(rname, robj["values"]);
+        });
+
+        restrictionsDialog.showModal();
+    } else {
+        alert("Sorry, the <dialog> API is not supported by this browser.");
+    }
+};
+
+/**
+ * One click handler on the privileges table for all the edit restrictions
+ * links and the tree branch toggles, so rows can come and go without
+ * attaching handlers to each of them
+ */
+const privilegesTable = document.getElementById("privileges");
+privilegesTable.addEventListener('click', (e) => {
+    const link = e.target.closest("span.editRestrictions a");
+    if (link) {
+        showRestrictionsDialog({ target: link, preventDefault: () => e.preventDefault() });
+        return;
+    }
+    const toggle = e.target.closest("button.tree-toggle");
+    if (toggle && tree) {
+        e.preventDefault();
+        toggleTreeBranch(Number(toggle.closest("tr").getAttribute("data-index")));
+    }
+});
+
+
+/**
+ * Attach click handler to the restrictions dialog ok button
+ */
+restrictionsDialog.querySelector("button#dlgOk").addEventListener("click", (e) => {
+    e.preventDefault();
+
+    const form = document.getElementById("modifyAceRestrictionsForm");
+    if (form.reportValidity()) {
+        // copy the dialog state to the restriction-state elements
+        const privilegeName = form.getAttribute('data-privilege');
+        // determine which column is being updated
+        const tdIdx = form.getAttribute('data-for-privilege-allow') == "true" ? 2 : 3;
+        const restrictionState = document.querySelector("table#privileges tr[data-privilege='" + privilegeName + "'] td:nth-of-type(" + tdIdx + ") span.restriction-state");
+        // clear the old state
+        restrictionState.replaceChildren();
+
+        // fill in the current restriction details to a temp obj
+        const rnames = new Set();
+        // inject the new state
+        restrictionsDialog.querySelectorAll("input").forEach((input) => {
+            // if unchecked restriction is one that was existing before, then add
+            //  a hidden field to remove the restriction
+            if (input.classList.contains("declare-restriction") && !input.checked) {
+                const restrictionName = input.parentElement.innerText.trim();
+                const prname = privilegeName + "@" + restrictionName;
+                const key = tdIdx == 2 ? "allow" : "deny";
+                if (existingRestrictionNames[key].includes(prname)) {
+                    //add a hidden input to remove the existing restriction
+                    restrictionState.insertAdjacentHTML("beforeend", "<input type='hidden' name='restriction@" + prname + "@Delete' value='" + ("allow" == key ? 'allow' : 'deny') + "'/>");
+                }
+            }
+            if (!input.disabled && input.name) {
+                const clone = input.cloneNode();
+                clone.type = "hidden";
+                restrictionState.appendChild(clone);
+
+                // keep track of the names for use later
+                const restrictionRegex = /^restriction@([^@]+)@([^@]+)(@(Delete|Allow|Deny))?$/;
+                const matches = restrictionRegex.exec(input.getAttribute("name"));
+                const restrictionName = matches[2];
+                if (restrictionName) {
+                    rnames.add(restrictionName);
+                }
+            }
+        });
+
+        // now update the label of the corresponding 'edit restrictions' link'
+        const restrictionDetails = document.querySelector("table#privileges tr[data-privilege='" + privilegeName + "'] td:nth-of-type(" + tdIdx + ") span.editRestrictions span.restriction-details");
+        // clear out the old value
+        restrictionDetails.replaceChildren();
+        // insert the new value
+        if (rnames.size == 0) {
+            restrictionDetails.insertAdjacentText("beforeend", "No Restrictions");
+        } else {
+            restrictionDetails.insertAdjacentText("beforeend", Array.from(rnames).join(", "));
+        }
+
+        if (tree) {
+            // keep the state of the row once it is scrolled out of view
+            syncTreeRestrictions(privilegeName, tdIdx - 2);
+        }
+
+        // all done, so close the dialog
+        restrictionsDialog.close();
+    }
+});
+
+/**
+ * Attach click handler to the restrictions dialog cancel button
+ */
+restrictionsDialog.querySelector("button#dlgCancel").addEventListener("click", (e) => {
+    e.preventDefault();
+    restrictionsDialog.close();
+});
+
+/**
+ * function that toggle the display of the restriction value input rows
+ */
+const applyRestrictionFn = (e) => {
+    e.preventDefault();
+    const c = e.target;
+    const p = c.closest("p");
+    p.querySelectorAll("input[type='text']").forEach((input) => {
+        input.disabled = !c.checked;
+    });
+    p.querySelectorAll("span").forEach((span) => {
+        span.style.display = c.checked ? '' : 'none';
+    });
+};
+
+/**
+ * Attach change handler to the restriction checkboxes
+ */
+restrictionsDialog.addEventListener('change', (e) => {
+    if (e.target.classList.contains("declare-restriction")) {
+        applyRestrictionFn(e);
+    }
+});
+
+/**
+ * Helper to disable the delete restriction value row button if there is only one left
+ */
+const maybeDisableDeleteMultivalue = (p) => {
+    // disable the delete button if there is only one row left
+    const buttons = p.querySelectorAll("button.delete-multivalue");
+    const form = document.getElementById("modifyAceRestrictionsForm");
+    const canModify = form.getAttribute("data-canModify") == "true";
+    buttons.forEach((button) => {
+        button.disabled = !canModify || buttons.length == 1;
+    });
+};
+
+/**
+ * function that removes the restriction value row
+ */
+const removeRestrictionValueRowFn = (e) => {
+    if (typeof e.preventDefault === "function") {
+        e.preventDefault();
+    }
+    const c = e.target;
+    const p = c.closest("p");
+    if (p.querySelectorAll("span").length > 1) {
+        c.closest("span").remove();
+        maybeDisableDeleteMultivalue(p);
+    } else {
+        alert("Sorry, the last row can not be removed.");
+    }
+}
+
+/**
+ * function that adds a new restriction value row
+ * @param e the triggering event
+ * @param value (optional) the initial value of the new text input
+ */
+const addRestrictionValueRowFn = (e, value) => {
+    if (typeof e.preventDefault === "function") {
+        e.preventDefault();
+    }
+    const c = e.target;
+    const p = c.closest("p");
+    const form = c.closest("form");
+    const canModify = form.getAttribute("data-canModify") == "true";
+    const privilegeName = form.getAttribute('data-privilege');
+    const suffix = form.getAttribute('data-for-privilege-allow') == "true" ? "Allow" : "Deny";
+    const restrictionName = p.getAttribute('data-restriction');
+    const multival = p.getAttribute("data-multival") == "true";
+    const checked = p.querySelector("input.declare-restriction").checked;
+    let row = '<span class="restriction-value' + (multival ? 's' : '') + '"' + (checked ? '' : ' style="display: none;"') + '>' +
+        '<input type="text" name="restriction@' + privilegeName + '@' + restrictionName + '@' + suffix + '" value="' + (value || '').replaceAll('"', '&quot;') + '" required="required"' + (canModify && checked ? '' : ' disabled="disabled"') + ' /> ';
+    if (multival) {
+        row += '<button type="button" class="add-multivalue"' + (canModify ? '' : ' disabled="disabled"') + '>+</button> ' +
+            '<button type="button" class="delete-multivalue">-</button>';
+    }
+    row += '</span>';
+    p.insertAdjacentHTML("beforeend", row);
+    if (multival) {
+        maybeDisableDeleteMultivalue(p);
+    }
+}
+
+/**
+ * Attach click handler for the add and remove buttons of the restriction value rows
+ */
+restrictionsDialog.addEventListener('click', (e) => {
+    const button = e.target.closest("button.add-multivalue, button.delete-multivalue");
+    if (button) {
+        const event = { target: button, preventDefault: () => e.preventDefault() };
+        if (button.classList.contains("add-multivalue")) {
+            addRestrictionValueRowFn(event);
+        } else {
+            removeRestrictionValueRowFn(event);
+        }
+    }
+});
+
+/**
+ * In the server rendered mode all the rows exist, so the privilege state is
+ * read from their checkboxes once
+ */
+const privilegeTableData = document.getElementById("ace-privileges-table");
+if (privilegeTableData) {
+    const rows = [];
+    const state = createPrivilegeState(JSON.parse(privilegeTableData.textContent),
+        privilegeTableData.getAttribute("data-can-modify") == "true", (index) => rows[index]);
+    privilegesTable.querySelectorAll("tbody tr[data-privilege]").forEach((row) => {
+        const index = state.indexOf.get(row.getAttribute("data-privilege"));
+        if (index !== undefined) {
+            rows[index] = row;
+            state.checked[index * 2] = row.cells[1].querySelector("input.granted_or_denied").checked ? 1 : 0;
+            state.checked[index * 2 + 1] = row.cells[2].querySelector("input.granted_or_denied").checked ? 1 : 0;
+        }
+    });
+    privilegeState = state;
+    preprocessCheckedSlots(state);
+}
+
+/**
+ * Attach the change handler for all the allow/deny privilege checkboxes
+ */
+privilegesTable.addEventListener('change', (e) => {
+    const c = e.target;
+    if (privilegeState && c.classList.contains("granted_or_denied")) {
+        const index = privilegeState.indexOf.get(c.closest("tr").getAttribute("data-privilege"));
+        if (index !== undefined) {
+            applyPrivilegeSlot(privilegeState, index, c.value == "deny" ? 1 : 0, c.checked);
+            writeChangedSlots(privilegeState);
+        }
+    }
+});
+
+/**
+ * Load the "before [principal]" order choices on demand, one page at a time
+ */
+const orderSelect = document.getElementById("order");
+if (orderSelect) {
+    const orderUrl = orderSelect.getAttribute("data-order-url");
+    const orderFilter = document.getElementById("orderFilter");
+    const lastOption = orderSelect.querySelector("option[value='last']");
+    const principalId = document.getElementById("principalId").value;
+    const pageSize = 50;
+    let loadedPrefix = null;
+    let nextOffset = 0;
+    let previousValue = orderSelect.value;
+    let filterTimer = null;
+    let pendingRequest = null;
+
+    const loadOrderPageFn = (prefix, offset) => {
+        if (pendingRequest) {
+            // a newer page replaces the one still in flight
+            pendingRequest.abort();
+        }
+        const request = pendingRequest = new AbortController();
+        const params = new URLSearchParams({ pid: principalId, q: prefix, offset: offset, limit: pageSize });
+        return fetch(orderUrl + "?" + params.toString(), {
+            signal: request.signal,
+            headers: { "Accept": "application/json" }
+        })
+            .then((response) => response.ok ? response.json() : { total: 0, offset: offset, items: [] })
+            .then((page) => {
+                if (request.signal.aborted) {
+                    return;
+                }
+                pendingRequest = null;
+                if (offset == 0) {
+                    // a new prefix replaces the previously loaded choices except the selected one
+                    orderSelect.querySelectorAll("option.order-before").forEach((option) => {
+                        if (!option.selected) {
+                            option.remove();
+                        }
+                    });
+                }
+                orderSelect.querySelectorAll("option.order-more").forEach((option) => option.remove());
+                page.items.forEach((name) => {
+                    const value = "before " + name;
+                    if (!Array.from(orderSelect.options).some((option) => option.value == value)) {
+                        const option = document.createElement("option");
+                        option.className = "order-before";
+                        option.value = value;
+                        option.textContent = "Before " + name;
+                        orderSelect.insertBefore(option, lastOption);
+                    }
+                });
+                loadedPrefix = prefix;
+                nextOffset = page.offset + page.items.length;
+                if (nextOffset < page.total) {
+                    const more = document.createElement("option");
+                    more.className = "order-more";
+                    more.value = ":more";
+                    more.textContent = "Load more (" + (page.total - nextOffset) + " remaining)";
+                    orderSelect.insertBefore(more, lastOption);
+                }
+                if (page.total > pageSize || prefix) {
+                    // only offer the filter when there is more than a page of choices
+                    orderFilter.style.display = "";
+                }
+            })
+            .catch((e) => {
+                if (pendingRequest === request) {
+                    pendingRequest = null;
+                }
+                if (e.name != "AbortError") {
+                    console.error("Failed to load the order choices", e);
+                }
+            });
+    };
+
+    const ensureOrderLoadedFn = () => {
+        if (loadedPrefix == null && !pendingRequest) {
+            loadOrderPageFn("", 0);
+        }
+    };
+    orderSelect.addEventListener("focus", ensureOrderLoadedFn);
+    orderSelect.addEventListener("mousedown", ensureOrderLoadedFn);
+
+    orderSelect.addEventListener("change", () => {
+        if (orderSelect.value == ":more") {
+            // not a real choice, so restore the previous one and fetch the next page
+            orderSelect.value = previousValue;
+            loadOrderPageFn(loadedPrefix || "", nextOffset);
+        } else {
+            previousValue = orderSelect.value;
+        }
+    });
+
+    orderFilter.addEventListener("input", () => {
+        clearTimeout(filterTimer);
+        filterTimer = setTimeout(() => loadOrderPageFn(orderFilter.value.trim(), 0), 250);
+    });
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/** number of rows attached to the table each time its end scrolls into view */
+const ROW_BATCH_SIZE = 100;
+
+/** bits of the facets of an entry */
+const FACET_ALLOW = 1;
+const FACET_DENY = 2;
+const FACET_GROUP = 4;
+const FACETS_BY_NAME = { allow: FACET_ALLOW, deny: FACET_DENY, group: FACET_GROUP };
+
+/**
+ * The rows of the entries table are indexed once. Only the rows that match the
+ * filter are attached to the table, one batch at a time as the admin scrolls,
+ * and the others are kept detached.
+ */
+const acesTable = document.getElementById("aces");
+if (acesTable) {
+    const tbody = acesTable.tBodies[0];
+    const rows = Array.from(tbody.rows);
+    const keys = rows.map((row) => (row.getAttribute("data-principal") || "").toLowerCase());
+    const facets = Uint8Array.from(rows, (row) =>
+        (row.hasAttribute("data-allow") ? FACET_ALLOW : 0) |
+        (row.hasAttribute("data-deny") ? FACET_DENY : 0) |
+        (row.hasAttribute("data-group") ? FACET_GROUP : 0));
+    const selected = new Uint8Array(rows.length);
+    const matches = new Int32Array(rows.length);
+    let matchCount = 0;
+    let renderedCount = 0;
+    let lastQuery = null;
+    let lastFacets = 0;
+
+    const filterInput = document.getElementById("aceFilter");
+    const filterCount = document.getElementById("aceFilterCount");
+    const facetInputs = Array.from(document.querySelectorAll("#aceFilters input.ace-facet"));
+    const removeButton = document.getElementById("removeButton");
+
+    // a placeholder row at the end of the table that loads the next batch once it is visible
+    const sentinel = document.createElement("tr");
+    sentinel.className = "sentinel";
+    const sentinelCell = document.createElement("td");
+    sentinelCell.colSpan = rows.length ? rows[0].cells.length : 1;
+    sentinel.appendChild(sentinelCell);
+
+    const observer = new IntersectionObserver((entries) => {
+        if (entries.some((entry) => entry.isIntersecting)) {
+            renderMoreRowsFn();
+        }
+    }, { rootMargin: "200px" });
+
+    const renderMoreRowsFn = () => {
+        const end = Math.min(matchCount, renderedCount + ROW_BATCH_SIZE);
+        const fragment = document.createDocumentFragment();
+        for (let m = renderedCount; m < end; m++) {
+            fragment.appendChild(rows[matches[m]]);
+        }
+        renderedCount = end;
+        tbody.insertBefore(fragment, sentinel);
+        sentinel.hidden = renderedCount >= matchCount;
+        if (!sentinel.hidden) {
+            // observe again so a sentinel that is still visible loads another batch
+            observer.unobserve(sentinel);
+            observer.observe(sentinel);
+        }
+    };
+
+    const applyFilterFn = () => {
+        const query = filterInput ? filterInput.value.trim().toLowerCase() : "";
+        let facetMask = 0;
+        facetInputs.forEach((input) => {
+            if (input.checked) {
+                facetMask |= FACETS_BY_NAME[input.value] || 0;
+            }
+        });
+        if (query === lastQuery && facetMask == lastFacets) {
+            return;
+        }
+
+        // a longer query with the same or more facets can only narrow the previous matches
+        const narrowing = lastQuery !== null && query.startsWith(lastQuery) && (facetMask & lastFacets) == lastFacets;
+        const sourceCount = narrowing ? matchCount : rows.length;
+        let count = 0;
+        for (let m = 0; m < sourceCount; m++) {
+            const i = narrowing ? matches[m] : m;
+            if ((facets[i] & facetMask) == facetMask && (!query || keys[i].includes(query))) {
+                matches[count++] = i;
+            }
+        }
+        matchCount = count;
+        lastQuery = query;
+        lastFacets = facetMask;
+        deselectHiddenFn();
+
+        tbody.replaceChildren(sentinel);
+        renderedCount = 0;
+        renderMoreRowsFn();
+        if (filterCount) {
+            filterCount.textContent = matchCount == rows.length ? "" : matchCount + " of " + rows.length + " entries";
+        }
+    };
+
+    let filterPending = false;
+    const scheduleFilterFn = () => {
+        if (!filterPending) {
+            filterPending = true;
+            requestAnimationFrame(() => {
+                filterPending = false;
+                applyFilterFn();
+            });
+        }
+    };
+    if (filterInput) {
+        filterInput.addEventListener("input", scheduleFilterFn);
+    }
+    facetInputs.forEach((input) => input.addEventListener("change", scheduleFilterFn));
+
+    /**
+     * keep count of the selected entries instead of scanning the checkboxes
+     */
+    let selectedCount = 0;
+    const matched = new Uint8Array(rows.length);
+
+    /**
+     * only the entries that match the filter can be removed, so the selection of
+     * the others is cleared when the filter hides them
+     */
+    const deselectHiddenFn = () => {
+        if (selectedCount == 0) {
+            return;
+        }
+        matched.fill(0);
+        for (let m = 0; m < matchCount; m++) {
+            matched[matches[m]] = 1;
+        }
+        for (let i = 0; i < rows.length; i++) {
+            if (selected[i] && !matched[i]) {
+                selected[i] = 0;
+                selectedCount--;
+                rows[i].querySelector("input.delete").checked = false;
+            }
+        }
+        updateRemoveButtonFn();
+    };
+    const updateRemoveButtonFn = () => {
+        if (removeButton) {
+            removeButton.disabled = selectedCount == 0;
+            removeButton.textContent = selectedCount == 0 ? "Remove Selected" : "Remove Selected (" + selectedCount + ")";
+        }
+    };
+    rows.forEach((row, i) => {
+        row.setAttribute("data-index", i);
+        const checkbox = row.querySelector("input.delete");
+        if (checkbox && checkbox.checked) {
+            // restored by the browser when navigating back to the page
+            selected[i] = 1;
+            selectedCount++;
+        }
+    });
+    tbody.addEventListener("change", (e) => {
+        const c = e.target;
+        if (c.classList.contains("delete")) {
+            const i = Number(c.closest("tr").getAttribute("data-index"));
+            if (selected[i] != (c.checked ? 1 : 0)) {
+                selected[i] = c.checked ? 1 : 0;
+                selectedCount += c.checked ? 1 : -1;
+                updateRemoveButtonFn();
+            }
+        }
+    });
+    updateRemoveButtonFn();
+
+    // the checkboxes of detached rows are not part of the form, so submit them as hidden fields
+    acesTable.closest("form").addEventListener("submit", (e) => {
+        // drop the fields of an earlier submit when the page is restored from the back/forward cache
+        e.target.querySelectorAll("input.detached-selection").forEach((input) => input.remove());
+        const fragment = document.createDocumentFragment();
+        for (let i = 0; i < rows.length; i++) {
+            if (selected[i] && !rows[i].isConnected) {
+                const input = document.createElement("input");
+                input.type = "hidden";
+                input.className = "detached-selection";
+                input.name = ":applyTo";
+                input.value = rows[i].querySelector("input.delete").value;
+                fragment.appendChild(input);
+            }
+        }
+        e.target.appendChild(fragment);
+    });
+
+    const filters = document.getElementById("aceFilters");
+    if (filters) {
+        filters.hidden = false;
+    }
+    applyFilterFn();
+}
+
+/**
+ * Suggest principal names while typing in the add entry field
+ */
+const addPidInput = document.getElementById("addPid");
+if (addPidInput) {
+    const suggestionsUrl = addPidInput.getAttribute("data-suggestions-url");
+    const datalist = document.getElementById("principalSuggestions");
+    let debounceTimer = null;
+    let pendingRequest = null;
+    let lastPrefix = null;
+
+    const loadSuggestionsFn = () => {
+        const prefix = addPidInput.value.trim();
+        if (prefix == lastPrefix) {
+            return;
+        }
+        lastPrefix = prefix;
+        if (pendingRequest) {
+            // a newer prefix replaces the one still in flight
+            pendingRequest.abort();
+            pendingRequest = null;
+        }
+        if (!prefix) {
+            datalist.replaceChildren();
+            return;
+        }
+        pendingRequest = new AbortController();
+        fetch(suggestionsUrl + "?q=" + encodeURIComponent(prefix), {
+            signal: pendingRequest.signal,
+            headers: { "Accept": "application/json" }
+        })
+            .then((response) => response.ok ? response.json() : [])
+            .then((suggestions) => {
+                const options = suggestions.map((suggestion) => {
+                    const option = document.createElement("option");
+                    option.value = suggestion.name;
+                    if (suggestion.group) {
+                        option.label = suggestion.name + " (group)";
+                    }
+                    return option;
+                });
+                datalist.replaceChildren(...options);
+            })
+            .catch((e) => {
+                if (e.name != "AbortError") {
+                    console.error("Failed to load the principal suggestions", e);
+                }
+            });
+    };
+
+    addPidInput.addEventListener("input", () => {
+        clearTimeout(debounceTimer);
+        debounceTimer = setTimeout(loadSuggestionsFn, 250);
+    });
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+
+import jakarta.json.Json;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.servlets.ServletResolverConstants;
+import org.apache.sling.api.servlets.SlingJakartaSafeMethodsServlet;
+import org.apache.sling.jcr.jackrabbit.accessmanager.GetAcl;
+import org.apache.sling.jcr.jackrabbit.accessmanager.PrivilegesInfo;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Returns one page of the principals that have an entry in the ACL of the
+ * resource to fill the "order" choices of the ACE page on demand.
+ *
+ * The names are taken from the ACL as it is read, so no principal is resolved.
+ */
+@Component(
+        service = Servlet.class,
+        property = {
+            ServletResolverConstants.SLING_SERVLET_RESOURCE_TYPES + "=sling/servlet/default",
+            ServletResolverConstants.SLING_SERVLET_SELECTORS + "=aceorder",
+            ServletResolverConstants.SLING_SERVLET_EXTENSIONS + "=json",
+            ServletResolverConstants.SLING_SERVLET_METHODS + "=GET"
+        })
+public class AceOrderServlet extends SlingJakartaSafeMethodsServlet {
+    private static final long serialVersionUID = 1L;
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    private final transient GetAcl getAcl;
+
+    transient PrivilegesInfo privilegesInfo = new PrivilegesInfo();
+
+    @Activate
+    public AceOrderServlet(@Reference GetAcl getAcl) {
+        this.getAcl = getAcl;
+    }
+
+    @Override
+    protected void doGet(SlingJakartaHttpServletRequest request, SlingJakartaHttpServletResponse response)
+            throws ServletException, IOException {
+        // same rules as the ACE page itself
+        Node node = request.getResource().adaptTo(Node.class);
+        if (node == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!privilegesInfo.canReadAccessControl(node)) {
+            response.sendError(
+                    request.getRemoteUser() == null
+                            ? HttpServletResponse.SC_NOT_FOUND
+                            : HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        List<String> names;
+        try {
+            Session jcrSession = request.getResourceResolver().adaptTo(Session.class);
+            JsonObject acl = getAcl.getAcl(jcrSession, request.getResource().getPath());
+            names = filter(acl, request.getParameter("pid"), request.getParameter("q"));
+        } catch (RepositoryException e) {
+            throw new ServletException("Failed to read the access control list", e);
+        }
+
+        int offset = Math.max(0, parseInt(request.getParameter("offset"), 0));
+        int limit = Math.min(MAX_LIMIT, Math.max(1, parseInt(request.getParameter("limit"), DEFAULT_LIMIT)));
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator generator = Json.createGenerator(response.getWriter())) {
+            generator.writeStartObject().write("total", names.size()).write("offset", offset);
+            generator.writeStartArray("items");
+            for (int i = offset; i < names.size() && i < offset + limit; i++) {
+                generator.write(names.get(i));
+            }
+            generator.writeEnd().writeEnd();
+        }
+    }
+
+    /**
+     * Collect the principal names of the ACL in the order of the entries
+     *
+     * @param acl the ACL as returned from {@link GetAcl}
+     * @param excludePrincipal the principal of the ACE being edited or null
+     * @param prefix the prefix to match, ignoring case, or null for all
+     * @return the principal names
+     */
+    static List<String> filter(JsonObject acl, String excludePrincipal, String prefix) {
+        String lowerPrefix = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        List<Entry<String, JsonValue>> entries = new ArrayList<>(acl.entrySet());
+        entries.sort(Comparator.comparingInt(AceOrderServlet::toOrder));
+        List<String> names = new ArrayList<>(entries.size());
+        for (Entry<String, JsonValue> entry : entries) {
+            String name = entry.getKey();
+            if (!name.equals(excludePrincipal) && name.toLowerCase(Locale.ROOT).startsWith(lowerPrefix)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static int toOrder(Entry<String, JsonValue> entry) {
+        if (entry.getValue() instanceof JsonObject aceObj && aceObj.get("order") instanceof JsonNumber order) {
+            return order.intValue();
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value != null) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                // use the default
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,659 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.Value;
+import javax.jcr.ValueFactory;
+import javax.jcr.security.AccessControlEntry;
+import javax.jcr.security.AccessControlManager;
+import javax.jcr.security.AccessControlPolicy;
+import javax.jcr.security.AccessControlPolicyIterator;
+import javax.jcr.security.Privilege;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.JsonValue.ValueType;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.JackrabbitAccessControlEntry;
+import org.apache.jackrabbit.api.security.JackrabbitAccessControlList;
+import org.apache.jackrabbit.api.security.principal.PrincipalManager;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.request.RequestParameter;
+import org.apache.sling.api.servlets.ServletResolverConstants;
+import org.apache.sling.api.servlets.SlingJakartaAllMethodsServlet;
+import org.apache.sling.jcr.jackrabbit.accessmanager.PrivilegesInfo;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Exports the access control entries of a subtree as a snapshot of
+ * newline-delimited JSON, one entry per line, and applies such a snapshot
+ * again.
+ *
+ * Each line of a snapshot looks like
+ * <code>{"path":"/content/a","principal":"everyone","allow":true,"privileges":["jcr:read"],"restrictions":{"rep:glob":"*"}}</code>.
+ * The export walks the subtree with one iterator per level and writes each
+ * entry as soon as it is read, so it does not depend on the size of the subtree.
+ * The <code>jcr:system</code> tree (version storage, node types, ...) is not walked.
+ *
+ * The import reads the lines of the <code>snapshot</code> file parameter (or the
+ * request body) in order. The lines of one path must follow each other, as they do
+ * in an export, the lines of a path that appears again after another path are
+ * reported as errors and not applied. The entries of each path replace the ACL of that path when they
+ * differ from it, and the changes are saved every <code>:batchSize</code> paths.
+ * Paths without a line in the snapshot are left as they are, unless
+ * <code>:removeMissing=true</code> is given: then the entries of the other paths
+ * of the subtree are removed as well, which restores the subtree to the snapshot.
+ * The import keeps the paths of the snapshot in memory.
+ * With <code>:dryRun=true</code> nothing is changed. In both cases the response
+ * streams one line for each added or removed entry and ends with a summary line.
+ */
+@Component(
+        service = Servlet.class,
+        property = {
+            ServletResolverConstants.SLING_SERVLET_RESOURCE_TYPES + "=sling/servlet/default",
+            ServletResolverConstants.SLING_SERVLET_SELECTORS + "=aclsnapshot",
+            ServletResolverConstants.SLING_SERVLET_EXTENSIONS + "=jsonl",
+            ServletResolverConstants.SLING_SERVLET_METHODS + "=GET",
+            ServletResolverConstants.SLING_SERVLET_METHODS + "=POST"
+        })
+public class AclSnapshotServlet extends SlingJakartaAllMethodsServlet {
+    private static final long serialVersionUID = 1L;
+
+    static final String CONTENT_TYPE = "application/x-ndjson";
+    static final String PARAM_SNAPSHOT = "snapshot";
+    static final String PARAM_DRY_RUN = ":dryRun";
+    static final String PARAM_BATCH_SIZE = ":batchSize";
+    static final String PARAM_REMOVE_MISSING = ":removeMissing";
+    static final int DEFAULT_BATCH_SIZE = 100;
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private static final String KEY_PATH = "path";
+    private static final String KEY_PRINCIPAL = "principal";
+    private static final String KEY_ALLOW = "allow";
+    private static final String KEY_PRIVILEGES = "privileges";
+    private static final String KEY_RESTRICTIONS = "restrictions";
+    private static final String KEY_ACTION = "action";
+
+    transient PrivilegesInfo privilegesInfo = new PrivilegesInfo();
+
+    @Override
+    protected void doGet(SlingJakartaHttpServletRequest request, SlingJakartaHttpServletResponse response)
+            throws ServletException, IOException {
+        Node node = request.getResource().adaptTo(Node.class);
+        if (node == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // same rules as the ACL page itself
+        if (!privilegesInfo.canReadAccessControl(node)) {
+            sendDenied(request, response);
+            return;
+        }
+
+        response.setContentType(CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"acl-snapshot.jsonl\"");
+        try {
+            Session jcrSession = node.getSession();
+            export(jcrSession.getAccessControlManager(), node, response.getWriter());
+        } catch (RepositoryException e) {
+            throw new ServletException("Failed to export the access control entries", e);
+        }
+    }
+
+    @Override
+    protected void doPost(SlingJakartaHttpServletRequest request, SlingJakartaHttpServletResponse response)
+            throws ServletException, IOException {
+        Node node = request.getResource().adaptTo(Node.class);
+        if (node == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!privilegesInfo.canModifyAccessControl(node)) {
+            sendDenied(request, response);
+            return;
+        }
+
+        boolean dryRun = Boolean.parseBoolean(request.getParameter(PARAM_DRY_RUN));
+        boolean removeMissing = Boolean.parseBoolean(request.getParameter(PARAM_REMOVE_MISSING));
+        int batchSize = Math.min(
+                MAX_BATCH_SIZE, Math.max(1, parseInt(request.getParameter(PARAM_BATCH_SIZE), DEFAULT_BATCH_SIZE)));
+
+        response.setContentType(CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        RequestParameter snapshot = request.getRequestParameter(PARAM_SNAPSHOT);
+        try (BufferedReader reader = snapshot == null
+                ? request.getReader()
+                : new BufferedReader(new InputStreamReader(snapshot.getInputStream(), StandardCharsets.UTF_8))) {
+            new Importer(node.getSession(), node.getPath(), dryRun, batchSize, response.getWriter())
+                    .removeMissing(removeMissing)
+                    .apply(reader);
+        } catch (RepositoryException e) {
+            throw new ServletException("Failed to import the access control entries", e);
+        }
+    }
+
+    private static void sendDenied(SlingJakartaHttpServletRequest request, SlingJakartaHttpServletResponse response)
+            throws IOException {
+        response.sendError(
+                request.getRemoteUser() == null ? HttpServletResponse.SC_NOT_FOUND : HttpServletResponse.SC_FORBIDDEN);
+    }
+
+    /**
+     * Write one line for each access control entry of the node and its descendants,
+     * depth first in document order.
+     *
+     * @param acm the access control manager to read the entries from
+     * @param root the root of the subtree
+     * @param out the writer to write the lines to
+     * @return the number of entries written
+     */
+    static long export(AccessControlManager acm, Node root, Writer out) throws RepositoryException, IOException {
+        long[] count = {0};
+        walk(root, path -> count[0] += exportEntries(acm, path, out));
+        out.flush();
+        return count[0];
+    }
+
+    /**
+     * Visits a path of the subtree
+     */
+    @FunctionalInterface
+    interface PathVisitor {
+        void visit(String path) throws RepositoryException, IOException;
+    }
+
+    /**
+     * Visit the node and its descendants depth first in document order, with one
+     * iterator per level, leaving out the access control and system nodes
+     */
+    static void walk(Node root, PathVisitor visitor) throws RepositoryException, IOException {
+        visitor.visit(root.getPath());
+        Deque<NodeIterator> levels = new ArrayDeque<>();
+        levels.push(root.getNodes());
+        while (!levels.isEmpty()) {
+            NodeIterator children = levels.peek();
+            if (!children.hasNext()) {
+                levels.pop();
+                continue;
+            }
+            Node child = children.nextNode();
+            if (isSkipped(child.getName())) {
+                continue;
+            }
+            visitor.visit(child.getPath());
+            levels.push(child.getNodes());
+        }
+    }
+
+    private static long exportEntries(AccessControlManager acm, String path, Writer out)
+            throws RepositoryException, IOException {
+        JackrabbitAccessControlList acl = getAcl(acm, path);
+        if (acl == null) {
+            return 0;
+        }
+        long count = 0;
+        for (AccessControlEntry entry : acl.getAccessControlEntries()) {
+            if (entry instanceof JackrabbitAccessControlEntry jace) {
+                writeLine(out, path, null, toEntry(acl, jace));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The policy nodes are read through the access control manager instead, and
+     * the system tree holds the version storage
+     */
+    static boolean isSkipped(String name) {
+        return "rep:policy".equals(name) || "rep:repoPolicy".equals(name) || "jcr:system".equals(name);
+    }
+
+    /**
+     * The access control list of the path or null if there is none yet
+     */
+    private static JackrabbitAccessControlList getAcl(AccessControlManager acm, String path)
+            throws RepositoryException {
+        for (AccessControlPolicy policy : acm.getPolicies(path)) {
+            if (policy instanceof JackrabbitAccessControlList acl) {
+                return acl;
+            }
+        }
+        return null;
+    }
+
+    private static Entry toEntry(JackrabbitAccessControlList acl, JackrabbitAccessControlEntry ace)
+            throws RepositoryException {
+        TreeSet<String> privileges = new TreeSet<>();
+        for (Privilege privilege : ace.getPrivileges()) {
+            privileges.add(privilege.getName());
+        }
+        JsonObjectBuilder restrictions = Json.createObjectBuilder();
+        for (String name : ace.getRestrictionNames()) {
+            if (acl.isMultiValueRestriction(name)) {
+                JsonArrayBuilder values = Json.createArrayBuilder();
+                for (Value value : ace.getRestrictions(name)) {
+                    values.add(value.getString());
+                }
+                restrictions.add(name, values);
+            } else {
+                restrictions.add(name, ace.getRestriction(name).getString());
+            }
+        }
+        return new Entry(ace.getPrincipal().getName(), ace.isAllow(), privileges, restrictions.build());
+    }
+
+    /**
+     * One access control entry. The privileges are kept in name order, so two
+     * entries granting the same are equal regardless of how they were written.
+     *
+     * @param restrictions the restrictions, a string for a single value
+     *          restriction and an array of strings for a multi value restriction
+     */
+    record Entry(String principal, boolean allow, SortedSet<String> privileges, JsonObject restrictions) {}
+
+    private static void writeLine(Writer out, String path, String action, Entry entry) throws IOException {
+        StringWriter line = new StringWriter();
+        try (JsonGenerator generator = Json.createGenerator(line)) {
+            generator.writeStartObject().write(KEY_PATH, path);
+            if (action != null) {
+                generator.write(KEY_ACTION, action);
+            }
+            generator.write(KEY_PRINCIPAL, entry.principal()).write(KEY_ALLOW, entry.allow());
+            generator.writeStartArray(KEY_PRIVILEGES);
+            entry.privileges().forEach(generator::write);
+            generator.writeEnd();
+            generator.write(KEY_RESTRICTIONS, entry.restrictions()).writeEnd();
+        }
+        out.write(line.toString());
+        out.write('\n');
+    }
+
+    private static void writeMessage(Writer out, String path, String action, String message) throws IOException {
+        StringWriter line = new StringWriter();
+        try (JsonGenerator generator = Json.createGenerator(line)) {
+            generator.writeStartObject().write(KEY_PATH, path).write(KEY_ACTION, action);
+            generator.write("message", message == null ? "" : message).writeEnd();
+        }
+        out.write(line.toString());
+        out.write('\n');
+    }
+
+    /**
+     * Parse the entry of one snapshot line
+     *
+     * @throws IllegalArgumentException if the line is not a valid entry
+     */
+    static Entry parseEntry(JsonObject line) {
+        if (!(line.get(KEY_PRINCIPAL) instanceof JsonString principal)
+                || !(line.get(KEY_PRIVILEGES) instanceof JsonArray privilegesArray)) {
+            throw new IllegalArgumentException("Missing principal or privileges");
+        }
+        TreeSet<String> privileges = new TreeSet<>();
+        for (JsonValue privilege : privilegesArray) {
+            privileges.add(stringValue(privilege));
+        }
+        JsonObject restrictions = line.getJsonObject(KEY_RESTRICTIONS);
+        if (restrictions == null) {
+            restrictions = JsonValue.EMPTY_JSON_OBJECT;
+        }
+        for (JsonValue restriction : restrictions.values()) {
+            if (restriction instanceof JsonArray values) {
+                values.forEach(AclSnapshotServlet::stringValue);
+            } else {
+                stringValue(restriction);
+            }
+        }
+        JsonValue allow = line.getOrDefault(KEY_ALLOW, JsonValue.NULL);
+        if (allow.getValueType() != ValueType.TRUE && allow.getValueType() != ValueType.FALSE) {
+            throw new IllegalArgumentException("Expected true or false for allow instead of " + allow);
+        }
+        return new Entry(principal.getString(), allow.getValueType() == ValueType.TRUE, privileges, restrictions);
+    }
+
+    private static String stringValue(JsonValue value) {
+        if (value instanceof JsonString string) {
+            return string.getString();
+        }
+        throw new IllegalArgumentException("Expected a string instead of " + value);
+    }
+
+    /**
+     * Applies the lines of a snapshot one path at a time
+     */
+    static class Importer {
+        private final Session session;
+        private final String rootPath;
+        private final boolean dryRun;
+        private final int batchSize;
+        private final Writer out;
+        private final AccessControlManager acm;
+
+        /**
+         * The paths of the snapshot read so far
+         */
+        private final Set<String> snapshotPaths = new HashSet<>();
+
+        private boolean removeMissing;
+
+        private int pending;
+        private int paths;
+        private int changed;
+        private int added;
+        private int removed;
+        private int errors;
+
+        Importer(Session session, String rootPath, boolean dryRun, int batchSize, Writer out)
+                throws RepositoryException {
+            this.session = session;
+            this.rootPath = rootPath;
+            this.dryRun = dryRun;
+            this.batchSize = batchSize;
+            this.out = out;
+            this.acm = session.getAccessControlManager();
+        }
+
+        /**
+         * Also remove the entries of the paths of the subtree that are not in the snapshot
+         */
+        Importer removeMissing(boolean removeMissing) {
+            this.removeMissing = removeMissing;
+            return this;
+        }
+
+        /**
+         * Read the snapshot to the end, applying the entries of each path in turn
+         */
+        void apply(BufferedReader reader) throws IOException, RepositoryException {
+            String currentPath = null;
+            // a path with an invalid line is skipped, so a broken line never removes an entry
+            boolean currentInvalid = false;
+            List<Entry> entries = new ArrayList<>();
+            String text;
+            int lineNumber = 0;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                String path = null;
+                Entry entry = null;
+                String message = null;
+                try (JsonReader jsonReader = Json.createReader(new StringReader(text))) {
+                    JsonObject line = jsonReader.readObject();
+                    if (!(line.get(KEY_PATH) instanceof JsonString pathString)) {
+                        throw new IllegalArgumentException("Missing path");
+                    }
+                    path = pathString.getString();
+                    if (!isWithinRoot(path)) {
+                        // leave the paths of the snapshot alone
+                        errors++;
+                        writeMessage(out, path, "error", "Line " + lineNumber + ": not within " + rootPath);
+                        continue;
+                    }
+                    entry = parseEntry(line);
+                } catch (JsonException | IllegalArgumentException e) {
+                    message = e.getMessage();
+                }
+                if (path == null) {
+                    // not known which path the line belongs to, so skip the current one
+                    path = currentPath;
+                }
+                if (path != null && !path.equals(currentPath)) {
+                    if (currentPath != null && !currentInvalid) {
+                        applyPath(currentPath, entries);
+                    }
+                    currentPath = path;
+                    currentInvalid = false;
+                    entries.clear();
+                    if (!snapshotPaths.add(path)) {
+                        // the lines read before for the path have been applied as its whole ACL
+                        errors++;
+                        currentInvalid = true;
+                        writeMessage(
+                                out,
+                                path,
+                                "error",
+                                "Line " + lineNumber + ": the lines of the path do not follow each other");
+                    }
+                }
+                if (entry == null) {
+                    errors++;
+                    currentInvalid = true;
+                    writeMessage(out, path == null ? rootPath : path, "error", "Line " + lineNumber + ": " + message);
+                } else {
+                    entries.add(entry);
+                }
+            }
+            if (currentPath != null && !currentInvalid) {
+                applyPath(currentPath, entries);
+            }
+            if (removeMissing && session.nodeExists(rootPath)) {
+                walk(session.getNode(rootPath), path -> {
+                    if (!snapshotPaths.contains(path) && getAcl(acm, path) != null) {
+                        applyPath(path, List.of());
+                    }
+                });
+            }
+            if (!dryRun && pending > 0) {
+                session.save();
+            }
+            writeSummary();
+            out.flush();
+        }
+
+        boolean isWithinRoot(String path) {
+            return path.equals(rootPath) || path.startsWith("/".equals(rootPath) ? rootPath : rootPath + "/");
+        }
+
+        /**
+         * Replace the entries of one path when they differ from the snapshot
+         */
+        void applyPath(String path, List<Entry> entries) throws IOException, RepositoryException {
+            paths++;
+            if (!session.nodeExists(path)) {
+                errors++;
+                writeMessage(out, path, "error", "Not found");
+                return;
+            }
+            JackrabbitAccessControlList acl = getAcl(acm, path);
+            List<Entry> existing = new ArrayList<>();
+            if (acl != null) {
+                for (AccessControlEntry ace : acl.getAccessControlEntries()) {
+                    if (ace instanceof JackrabbitAccessControlEntry jace) {
+                        existing.add(toEntry(acl, jace));
+                    }
+                }
+            }
+            if (existing.equals(entries)) {
+                return;
+            }
+
+            try {
+                replaceEntries(path, acl, entries);
+            } catch (RepositoryException | IllegalArgumentException e) {
+                // the list is only a copy until it is set, so this path is left as it was
+                errors++;
+                writeMessage(out, path, "error", e.getMessage());
+                return;
+            }
+            changed++;
+            for (Entry entry : existing) {
+                if (!entries.contains(entry)) {
+                    removed++;
+                    writeLine(out, path, "remove", entry);
+                }
+            }
+            for (Entry entry : entries) {
+                if (!existing.contains(entry)) {
+                    added++;
+                    writeLine(out, path, "add", entry);
+                }
+            }
+            if (!dryRun && ++pending >= batchSize) {
+                session.save();
+                pending = 0;
+            }
+        }
+
+        private void replaceEntries(String path, JackrabbitAccessControlList acl, List<Entry> entries)
+                throws RepositoryException {
+            if (acl == null) {
+                acl = createAcl(path);
+            }
+            // resolve everything first, so an invalid entry leaves the ACL as it was
+            // and a dry run reports the same errors as the import
+            PrincipalManager principalManager = ((JackrabbitSession) session).getPrincipalManager();
+            ValueFactory valueFactory = session.getValueFactory();
+            List<Principal> principals = new ArrayList<>(entries.size());
+            List<Privilege[]> privileges = new ArrayList<>(entries.size());
+            List<Map<String, Value>> singleValues = new ArrayList<>(entries.size());
+            List<Map<String, Value[]>> multiValues = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                Principal principal = principalManager.getPrincipal(entry.principal());
+                if (principal == null) {
+                    throw new IllegalArgumentException("Principal not found: " + entry.principal());
+                }
+                principals.add(principal);
+                List<Privilege> entryPrivileges =
+                        new ArrayList<>(entry.privileges().size());
+                for (String name : entry.privileges()) {
+                    entryPrivileges.add(acm.privilegeFromName(name));
+                }
+                privileges.add(entryPrivileges.toArray(new Privilege[0]));
+                Map<String, Value> single = new HashMap<>();
+                Map<String, Value[]> multi = new HashMap<>();
+                for (Map.Entry<String, JsonValue> restriction :
+                        entry.restrictions().entrySet()) {
+                    String name = restriction.getKey();
+                    int type = acl.getRestrictionType(name);
+                    if (restriction.getValue() instanceof JsonArray array) {
+                        Value[] values = new Value[array.size()];
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = valueFactory.createValue(stringValue(array.get(i)), type);
+                        }
+                        multi.put(name, values);
+                    } else {
+                        single.put(name, valueFactory.createValue(stringValue(restriction.getValue()), type));
+                    }
+                }
+                singleValues.add(single);
+                multiValues.add(multi);
+            }
+            if (dryRun) {
+                return;
+            }
+
+            if (entries.isEmpty()) {
+                acm.removePolicy(path, acl);
+                return;
+            }
+            for (AccessControlEntry ace : acl.getAccessControlEntries()) {
+                acl.removeAccessControlEntry(ace);
+            }
+            for (int i = 0; i < entries.size(); i++) {
+                acl.addEntry(
+                        principals.get(i),
+                        privileges.get(i),
+                        entries.get(i).allow(),
+                        singleValues.get(i),
+                        multiValues.get(i));
+            }
+            acm.setPolicy(path, acl);
+        }
+
+        private @NotNull JackrabbitAccessControlList createAcl(String path) throws RepositoryException {
+            AccessControlPolicyIterator applicable = acm.getApplicablePolicies(path);
+            while (applicable.hasNext()) {
+                if (applicable.nextAccessControlPolicy() instanceof JackrabbitAccessControlList acl) {
+                    return acl;
+                }
+            }
+            throw new RepositoryException("No access control list can be set on " + path);
+        }
+
+        private void writeSummary() throws IOException {
+            StringWriter line = new StringWriter();
+            try (JsonGenerator generator = Json.createGenerator(line)) {
+                generator
+                        .writeStartObject()
+                        .write(KEY_PATH, rootPath)
+                        .write(KEY_ACTION, "summary")
+                        .write("paths", paths)
+                        .write("changed", changed)
+                        .write("added", added)
+                        .write("removed", removed)
+                        .write("errors", errors)
+                        .write("dryRun", dryRun)
+                        .write("removeMissing", removeMissing)
+                        .writeEnd();
+            }
+            out.write(line.toString());
+            out.write('\n');
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value != null) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                // use the default
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.sling.api.resource.AbstractResource;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceMetadata;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.spi.resource.provider.ResolveContext;
+import org.apache.sling.spi.resource.provider.ResourceContext;
+import org.apache.sling.spi.resource.provider.ResourceProvider;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.framework.Bundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read only provider of the ACL/ACE editor scripts and assets straight from
+ * the entries of the bundle, so they do not have to be copied into the
+ * repository.
+ */
+class EditorResourceProvider extends ResourceProvider<Object> {
+
+    /**
+     * The content types of the file extensions of the editor resources, which
+     * are set as if the files had been installed into the repository
+     */
+    static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html",
+            "js", "application/javascript",
+            "css", "text/css",
+            "svg", "image/svg+xml",
+            "json", "application/json",
+            "txt", "text/plain",
+            "woff2", "font/woff2",
+            "woff", "font/woff",
+            "gz", "application/gzip");
+
+    static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final Bundle bundle;
+
+    private final String folder;
+
+    /**
+     * @param bundle the bundle with the resources
+     * @param folder the folder of the bundle that is mapped to the repository root
+     */
+    EditorResourceProvider(@NotNull Bundle bundle, @NotNull String folder) {
+        this.bundle = bundle;
+        this.folder = folder;
+    }
+
+    @Override
+    public @Nullable Resource getResource(
+            @NotNull ResolveContext<Object> ctx,
+            @NotNull String path,
+            @NotNull ResourceContext resourceContext,
+            @Nullable Resource parent) {
+        URL file = bundle.getEntry(folder + path);
+        if (file != null && !file.getPath().endsWith("/")) {
+            return new BundleEntryResource(ctx.getResourceResolver(), path, file, false, bundle.getLastModified());
+        }
+        URL dir = bundle.getEntry(folder + path + "/");
+        if (dir != null) {
+            return new BundleEntryResource(ctx.getResourceResolver(), path, dir, true, bundle.getLastModified());
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable Iterator<Resource> listChildren(@NotNull ResolveContext<Object> ctx, @NotNull Resource parent) {
+        Enumeration<String> entryPaths = bundle.getEntryPaths(folder + parent.getPath());
+        if (entryPaths == null) {
+            return null;
+        }
+        List<Resource> children = new ArrayList<>();
+        for (String entryPath : Collections.list(entryPaths)) {
+            // entry paths are relative to the bundle root and have no leading slash
+            String path = entryPath.substring(folder.length() - 1);
+            if (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            Resource child = getResource(ctx, path, ResourceContext.EMPTY_CONTEXT, parent);
+            if (child != null) {
+                children.add(child);
+            }
+        }
+        return children.iterator();
+    }
+
+    /**
+     * The content type of the file, by its extension
+     */
+    static @NotNull String getContentType(@NotNull String path) {
+        int dot = path.lastIndexOf('.');
+        String extension =
+                dot < path.lastIndexOf('/') + 1 ? "" : path.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return CONTENT_TYPES.getOrDefault(extension, DEFAULT_CONTENT_TYPE);
+    }
+
+    /**
+     * A file or folder entry of the bundle
+     */
+    static final class BundleEntryResource extends AbstractResource {
+        private final Logger logger = LoggerFactory.getLogger(getClass());
+
+        private final ResourceResolver resolver;
+        private final String path;
+        private final URL entry;
+        private final boolean folder;
+        private final ResourceMetadata metadata = new ResourceMetadata();
+
+        BundleEntryResource(ResourceResolver resolver, String path, URL entry, boolean folder, long lastModified) {
+            this.resolver = resolver;
+            this.path = path;
+            this.entry = entry;
+            this.folder = folder;
+            metadata.setResolutionPath(path);
+            metadata.setModificationTime(lastModified);
+            if (!folder) {
+                metadata.setContentType(getContentType(path));
+                try {
+                    long length = entry.openConnection().getContentLengthLong();
+                    if (length >= 0) {
+                        metadata.setContentLength(length);
+                    }
+                } catch (IOException e) {
+                    logger.debug("Unable to read the length of {}", entry, e);
+                }
+            }
+        }
+
+        @Override
+        public @NotNull String getPath() {
+            return path;
+        }
+
+        @Override
+        public @NotNull String getResourceType() {
+            return folder ? "nt:folder" : "nt:file";
+        }
+
+        @Override
+        public @Nullable String getResourceSuperType() {
+            return null;
+        }
+
+        @Override
+        public @NotNull ResourceMetadata getResourceMetadata() {
+            return metadata;
+        }
+
+        @Override
+        public @NotNull ResourceResolver getResourceResolver() {
+            return resolver;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <AdapterType> @Nullable AdapterType adaptTo(@NotNull Class<AdapterType> type) {
+            if (type == URL.class) {
+                return (AdapterType) entry;
+            } else if (type == InputStream.class && !folder) {
+                try {
+                    return (AdapterType) entry.openStream();
+                } catch (IOException e) {
+                    logger.warn("Failed to open {}", entry, e);
+                    return null;
+                }
+            }
+            return super.adaptTo(type);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.ResourceUtil;
+import org.apache.sling.spi.resource.provider.ResourceProvider;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.osgi.service.metatype.annotations.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Makes the ACL/ACE editor scripts and assets available at their usual paths.
+ * They are not part of the initial content, so instances that never use the
+ * editor do not store them. By default they are served from the bundle, the
+ * "repository" mode copies them into the repository instead, which requires a
+ * service user mapping for the "editor-content" sub service that can write
+ * the paths.
+ *
+ * Earlier versions installed them with the initial content. The resource
+ * providers hide those copies, which the bundle mode removes when the service
+ * user mapping is there.
+ */
+@Component(service = EditorResources.class, immediate = true)
+@Designate(ocd = EditorResources.Config.class)
+public class EditorResources {
+    static final String SUBSERVICE_NAME = "editor-content";
+
+    /**
+     * The folder of the bundle with the editor resources, laid out like the repository
+     */
+    static final String CONTENT_FOLDER = "editor-content";
+
+    static final String MODE_BUNDLE = "bundle";
+
+    static final String MODE_REPOSITORY = "repository";
+
+    /**
+     * The paths of the editor resources, the resources below them come from the bundle
+     */
+    static final List<String> ROOTS = List.of(
+            "/apps/sling/servlet/default/acl.html", "/apps/sling/servlet/default/ace.html", "/content/starter/access");
+
+    @ObjectClassDefinition(
+            name = "Apache Sling Starter ACL Editor Resources",
+            description = "Where the scripts and assets of the ACL/ACE editor pages are served from")
+    public @interface Config {
+        @AttributeDefinition(
+                name = "Mode",
+                description = "Serve the editor resources from the bundle, or copy them into the repository",
+                options = {
+                    @Option(label = "Bundle", value = MODE_BUNDLE),
+                    @Option(label = "Repository", value = MODE_REPOSITORY)
+                })
+        String mode() default MODE_BUNDLE;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final List<ServiceRegistration<?>> registrations = new ArrayList<>();
+
+    @Activate
+    public EditorResources(
+            @Reference ResourceResolverFactory resolverFactory, BundleContext bundleContext, Config config) {
+        Bundle bundle = bundleContext.getBundle();
+        if (MODE_REPOSITORY.equals(config.mode())) {
+            copy(resolverFactory, bundle);
+        } else {
+            removeRepositoryCopies(resolverFactory);
+            EditorResourceProvider provider = new EditorResourceProvider(bundle, "/" + CONTENT_FOLDER);
+            for (String root : ROOTS) {
+                Hashtable<String, Object> properties = new Hashtable<>();
+                properties.put(ResourceProvider.PROPERTY_ROOT, root);
+                properties.put(ResourceProvider.PROPERTY_NAME, "starter-editor-" + ResourceUtil.getName(root));
+                registrations.add(bundleContext.registerService(ResourceProvider.class, provider, properties));
+            }
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        for (ServiceRegistration<?> registration : registrations) {
+            registration.unregister();
+        }
+        registrations.clear();
+    }
+
+    /**
+     * Removes the copies of the editor resources that the initial content of
+     * earlier versions installed. It works on the JCR session, as the resource
+     * providers registered next hide those copies from the resource resolver.
+     */
+    private void removeRepositoryCopies(ResourceResolverFactory resolverFactory) {
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(
+                Map.of(ResourceResolverFactory.SUBSERVICE, SUBSERVICE_NAME))) {
+            Session session = resolver.adaptTo(Session.class);
+            if (session == null) {
+                return;
+            }
+            for (String root : ROOTS) {
+                if (session.nodeExists(root)) {
+                    session.removeItem(root);
+                    logger.info("Removed the repository copy of {}, it is served from the bundle", root);
+                }
+            }
+            session.save();
+        } catch (LoginException e) {
+            // the mapping is optional, the copies are hidden by the resource providers anyway
+            logger.debug("Unable to check for repository copies of the ACL editor resources", e);
+        } catch (RepositoryException e) {
+            logger.warn("Failed to remove the repository copies of the ACL editor resources", e);
+        }
+    }
+
+    /**
+     * Copies the files that are missing or older than the bundle into the repository
+     */
+    private void copy(ResourceResolverFactory resolverFactory, Bundle bundle) {
+        Enumeration<URL> entries = bundle.findEntries(CONTENT_FOLDER, "*", true);
+        if (entries == null) {
+            return;
+        }
+        Calendar lastModified = Calendar.getInstance();
+        lastModified.setTimeInMillis(bundle.getLastModified());
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(
+                Map.of(ResourceResolverFactory.SUBSERVICE, SUBSERVICE_NAME))) {
+            int copied = 0;
+            for (URL entry : Collections.list(entries)) {
+                String path = entry.getPath().substring(CONTENT_FOLDER.length() + 1);
+                if (!path.endsWith("/") && copy(resolver, path, entry, lastModified)) {
+                    copied++;
+                }
+            }
+            resolver.commit();
+            logger.info("Copied {} ACL editor resources into the repository", copied);
+        } catch (LoginException | IOException e) {
+            logger.warn("Failed to copy the ACL editor resources into the repository", e);
+        }
+    }
+
+    private boolean copy(ResourceResolver resolver, String path, URL entry, Calendar lastModified) throws IOException {
+        Resource existing = resolver.getResource(path);
+        if (existing != null) {
+            Calendar stored = existing.getValueMap().get("jcr:content/jcr:lastModified", Calendar.class);
+            if (stored != null && !stored.before(lastModified)) {
+                return false;
+            }
+            resolver.delete(existing);
+        }
+        Resource parent = ResourceUtil.getOrCreateResource(
+                resolver, ResourceUtil.getParent(path), "sling:Folder", "sling:Folder", false);
+        Resource file = resolver.create(parent, ResourceUtil.getName(path), Map.of("jcr:primaryType", "nt:file"));
+        String mimeType = URLConnection.guessContentTypeFromName(path);
+        try (InputStream data = entry.openStream()) {
+            Map<String, Object> content = new HashMap<>();
+            content.put("jcr:primaryType", "nt:resource");
+            content.put("jcr:data", data);
+            content.put("jcr:lastModified", lastModified);
+            content.put("jcr:mimeType", mimeType == null ? "application/octet-stream" : mimeType);
+            resolver.create(file, "jcr:content", content);
+        }
+        return true;
+    }
+}
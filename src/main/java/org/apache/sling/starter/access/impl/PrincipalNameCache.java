@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.principal.GroupPrincipal;
+import org.apache.jackrabbit.api.security.principal.PrincipalIterator;
+import org.apache.jackrabbit.api.security.principal.PrincipalManager;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically refreshed, prefix searchable snapshot of the principal names
+ * used to suggest principals while typing. The lookups never touch the
+ * repository.
+ *
+ * The refresh is triggered by the Sling scheduler and requires a service user
+ * mapping for the "principal-suggestions" sub service that can see the principals.
+ * Without that mapping there are no suggestions. The names are seen with the
+ * service user, so lookups for a request filter them by what its session can see.
+ */
+@Component(
+        service = {PrincipalNameCache.class, Runnable.class},
+        property = {"scheduler.concurrent:Boolean=false", "scheduler.immediate:Boolean=true"})
+@Designate(ocd = PrincipalNameCache.Config.class)
+public class PrincipalNameCache implements Runnable {
+    static final String SUBSERVICE_NAME = "principal-suggestions";
+
+    @ObjectClassDefinition(
+            name = "Apache Sling Starter Principal Suggestions",
+            description = "Cache of the principal names that are suggested while typing a principal name")
+    public @interface Config {
+        @AttributeDefinition(
+                name = "Refresh Period",
+                description = "Number of seconds between refreshes of the principal names")
+        long scheduler_period() default 300;
+    }
+
+    /**
+     * A suggested principal
+     */
+    public static final class Suggestion {
+        private final String name;
+        private final boolean group;
+
+        Suggestion(String name, boolean group) {
+            this.name = name;
+            this.group = group;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isGroup() {
+            return group;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the principals sorted by their lower case name
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new boolean[0]);
+
+        private final String[] keys;
+        private final String[] names;
+        private final boolean[] groups;
+
+        private Snapshot(String[] keys, String[] names, boolean[] groups) {
+            this.keys = keys;
+            this.names = names;
+            this.groups = groups;
+        }
+
+        static Snapshot of(List<Suggestion> principals) {
+            List<Suggestion> sorted = new ArrayList<>(principals);
+            sorted.sort(
+                    Comparator.comparing((Suggestion s) -> toKey(s.getName())).thenComparing(Suggestion::getName));
+            String[] keys = new String[sorted.size()];
+            String[] names = new String[sorted.size()];
+            boolean[] groups = new boolean[sorted.size()];
+            for (int i = 0; i < keys.length; i++) {
+                Suggestion s = sorted.get(i);
+                keys[i] = toKey(s.getName());
+                names[i] = s.getName();
+                groups[i] = s.isGroup();
+            }
+            return new Snapshot(keys, names, groups);
+        }
+
+        List<Suggestion> find(String prefix, int limit, Predicate<String> visible) {
+            String key = toKey(prefix);
+            int idx = Arrays.binarySearch(keys, key);
+            if (idx < 0) {
+                idx = -idx - 1;
+            } else {
+                // step back to the first of any duplicate keys
+                while (idx > 0 && keys[idx - 1].equals(key)) {
+                    idx--;
+                }
+            }
+            List<Suggestion> result = new ArrayList<>(Math.min(limit, 16));
+            int end = Math.min(keys.length, idx + MAX_CHECKED);
+            for (int i = idx; i < end && result.size() < limit && keys[i].startsWith(key); i++) {
+                if (visible.test(names[i])) {
+                    result.add(new Suggestion(names[i], groups[i]));
+                }
+            }
+            return result;
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        private static String toKey(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * The maximum number of matching names checked for one lookup
+     */
+    static final int MAX_CHECKED = 200;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ResourceResolverFactory resolverFactory;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * @param resolverFactory the factory of the service resource resolver
+     * @param config the configuration, which is not read but declared so its
+     *          scheduler.period default is a component property the scheduler picks up
+     */
+    @Activate
+    public PrincipalNameCache(@Reference ResourceResolverFactory resolverFactory, Config config) {
+        this.resolverFactory = resolverFactory;
+    }
+
+    /**
+     * Finds the principals whose name starts with the prefix, ignoring case.
+     *
+     * @param prefix the prefix to match
+     * @param limit the maximum number of principals to return
+     * @return the matching principals sorted by name
+     */
+    public @NotNull List<Suggestion> find(@NotNull String prefix, int limit) {
+        return find(prefix, limit, name -> true);
+    }
+
+    /**
+     * Finds the principals whose name starts with the prefix, ignoring case,
+     * that pass the filter. At most {@link #MAX_CHECKED} matching names are
+     * passed to the filter.
+     *
+     * @param prefix the prefix to match
+     * @param limit the maximum number of principals to return
+     * @param visible the filter for the names, for example whether the principal
+     *          can be seen by the session of the request
+     * @return the matching principals sorted by name
+     */
+    public @NotNull List<Suggestion> find(@NotNull String prefix, int limit, @NotNull Predicate<String> visible) {
+        if (prefix.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return snapshot.find(prefix, limit, visible);
+    }
+
+    /**
+     * Reload the principal names from the repository
+     */
+    @Override
+    public void run() {
+        long start = System.currentTimeMillis();
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(
+                Map.of(ResourceResolverFactory.SUBSERVICE, SUBSERVICE_NAME))) {
+            Session session = resolver.adaptTo(Session.class);
+            if (session instanceof JackrabbitSession jackrabbitSession) {
+                PrincipalManager principalManager = jackrabbitSession.getPrincipalManager();
+                List<Suggestion> principals = new ArrayList<>();
+                PrincipalIterator it = principalManager.getPrincipals(PrincipalManager.SEARCH_TYPE_ALL);
+                while (it.hasNext()) {
+                    Principal principal = it.nextPrincipal();
+                    principals.add(new Suggestion(principal.getName(), principal instanceof GroupPrincipal));
+                }
+                snapshot = Snapshot.of(principals);
+                logger.debug(
+                        "Loaded {} principal names in {} ms", principals.size(), System.currentTimeMillis() - start);
+            }
+        } catch (LoginException e) {
+            // no service user mapping, which is optional, so there are no suggestions
+            logger.debug("Unable to load the principal names without the {} service user", SUBSERVICE_NAME, e);
+        } catch (RepositoryException e) {
+            logger.warn("Failed to load the principal names", e);
+        }
+    }
+
+    Snapshot getSnapshot() {
+        return snapshot;
+    }
+}
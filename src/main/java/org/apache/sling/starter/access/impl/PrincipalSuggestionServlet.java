@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.principal.PrincipalManager;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.servlets.ServletResolverConstants;
+import org.apache.sling.api.servlets.SlingJakartaSafeMethodsServlet;
+import org.apache.sling.jcr.jackrabbit.accessmanager.PrivilegesInfo;
+import org.apache.sling.starter.access.impl.PrincipalNameCache.Suggestion;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Returns the principals whose name starts with the value of the "q" request
+ * parameter to power the principal name suggestions of the ACL page. Only the
+ * principals the session of the request can see are returned.
+ */
+@Component(
+        service = Servlet.class,
+        property = {
+            ServletResolverConstants.SLING_SERVLET_RESOURCE_TYPES + "=sling/servlet/default",
+            ServletResolverConstants.SLING_SERVLET_SELECTORS + "=principals",
+            ServletResolverConstants.SLING_SERVLET_EXTENSIONS + "=json",
+            ServletResolverConstants.SLING_SERVLET_METHODS + "=GET"
+        })
+public class PrincipalSuggestionServlet extends SlingJakartaSafeMethodsServlet {
+    private static final long serialVersionUID = 1L;
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+
+    private final transient PrincipalNameCache cache;
+
+    transient PrivilegesInfo privilegesInfo = new PrivilegesInfo();
+
+    @Activate
+    public PrincipalSuggestionServlet(@Reference PrincipalNameCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected void doGet(SlingJakartaHttpServletRequest request, SlingJakartaHttpServletResponse response)
+            throws ServletException, IOException {
+        // same rules as the ACL page itself
+        Node node = request.getResource().adaptTo(Node.class);
+        if (node == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!privilegesInfo.canReadAccessControl(node)) {
+            response.sendError(
+                    request.getRemoteUser() == null
+                            ? HttpServletResponse.SC_NOT_FOUND
+                            : HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        String prefix = request.getParameter("q");
+        int limit = parseLimit(request.getParameter("limit"));
+        List<Suggestion> suggestions = Collections.emptyList();
+        if (prefix != null
+                && request.getResourceResolver().adaptTo(Session.class)
+                        instanceof JackrabbitSession jackrabbitSession) {
+            // only suggest the principals the current user can see
+            try {
+                PrincipalManager principalManager = jackrabbitSession.getPrincipalManager();
+                suggestions = cache.find(prefix.trim(), limit, principalManager::hasPrincipal);
+            } catch (RepositoryException e) {
+                throw new ServletException("Failed to check the principals", e);
+            }
+        }
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        // the names are refreshed periodically, so allow the browser to reuse a result for a moment
+        response.setHeader("Cache-Control", "private, max-age=60");
+        try (JsonGenerator generator = Json.createGenerator(response.getWriter())) {
+            generator.writeStartArray();
+            for (Suggestion suggestion : suggestions) {
+                generator
+                        .writeStartObject()
+                        .write("name", suggestion.getName())
+                        .write("group", suggestion.isGroup())
+                        .writeEnd();
+            }
+            generator.writeEnd();
+        }
+    }
+
+    static int parseLimit(String value) {
+        int limit = DEFAULT_LIMIT;
+        if (value != null) {
+            try {
+                limit = Math.min(MAX_LIMIT, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                // use the default
+            }
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.security.Privilege;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.sling.starter.access.models.PrivilegeTable;
+import org.apache.sling.starter.access.models.PrivilegeTableCache;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Keeps the {@link PrivilegeTable}s of the privileges shown on the ACE page,
+ * keyed by the names of the privileges in display order.
+ *
+ * Registered privileges can not be changed or removed, so a table never
+ * becomes stale. A new privilege changes the list of names and so the key.
+ */
+@Component(service = PrivilegeTableCache.class)
+public class PrivilegeTableCacheImpl implements PrivilegeTableCache {
+    // there is one list of names for each set of supported privileges, so only a handful in practice
+    static final int MAX_ENTRIES = 64;
+
+    /**
+     * Calculates the table of the privileges
+     *
+     * @param names the privilege names in display order
+     * @param privileges the privileges by their name
+     * @return the table
+     */
+    static @NotNull PrivilegeTable toTable(@NotNull List<String> names, @NotNull Map<String, Privilege> privileges) {
+        int count = names.size();
+        Map<String, Integer> indexOf = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            indexOf.put(names.get(i), i);
+        }
+        List<List<Integer>> aggregates = new ArrayList<>(count);
+        List<List<Integer>> containers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            aggregates.add(new ArrayList<>());
+            containers.add(new ArrayList<>());
+        }
+        for (int i = 0; i < count; i++) {
+            Privilege privilege = privileges.get(names.get(i));
+            Privilege[] aggregatePrivileges = privilege == null ? null : privilege.getAggregatePrivileges();
+            if (aggregatePrivileges != null) {
+                for (Privilege aggregatePrivilege : aggregatePrivileges) {
+                    Integer j = indexOf.get(aggregatePrivilege.getName());
+                    if (j != null && j != i) {
+                        aggregates.get(i).add(j);
+                        // visited in index order, so already sorted
+                        containers.get(j).add(i);
+                    }
+                }
+                aggregates.get(i).sort(null);
+            }
+        }
+        int[] aggregateOffsets = new int[count + 1];
+        int[] containerOffsets = new int[count + 1];
+        int[] aggregateIndices = flatten(aggregates, aggregateOffsets);
+        int[] containerIndices = flatten(containers, containerOffsets);
+        return new PrivilegeTable(aggregateOffsets, aggregateIndices, containerOffsets, containerIndices);
+    }
+
+    private static int[] flatten(List<List<Integer>> lists, int[] offsets) {
+        for (int i = 0; i < lists.size(); i++) {
+            offsets[i + 1] = offsets[i] + lists.get(i).size();
+        }
+        int[] indices = new int[offsets[lists.size()]];
+        for (int i = 0; i < lists.size(); i++) {
+            List<Integer> list = lists.get(i);
+            for (int k = 0; k < list.size(); k++) {
+                indices[offsets[i] + k] = list.get(k);
+            }
+        }
+        return indices;
+    }
+
+    private final Map<List<String>, PrivilegeTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the table of the privileges, calculating it only if there is no
+     * cached copy for the same names
+     *
+     * @param names the privilege names in display order
+     * @param privileges the privileges by their name
+     * @return the table
+     */
+    @Override
+    public @NotNull PrivilegeTable getTable(@NotNull List<String> names, @NotNull Map<String, Privilege> privileges) {
+        List<String> key = List.copyOf(names);
+        PrivilegeTable table = tables.get(key);
+        if (table == null) {
+            table = toTable(key, privileges);
+            if (tables.size() >= MAX_ENTRIES) {
+                // not worth an eviction order for something this cheap to rebuild
+                tables.clear();
+            }
+            tables.put(key, table);
+        }
+        return table;
+    }
+
+    int size() {
+        return tables.size();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.index;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The principal of an access control entry and whether it grants or denies
+ * privileges.
+ */
+public final class AceSummary {
+    private final String principalName;
+    private final boolean allow;
+    private final boolean deny;
+
+    public AceSummary(@NotNull String principalName, boolean allow, boolean deny) {
+        this.principalName = principalName;
+        this.allow = allow;
+        this.deny = deny;
+    }
+
+    public @NotNull String getPrincipalName() {
+        return principalName;
+    }
+
+    public boolean isAllow() {
+        return allow;
+    }
+
+    public boolean isDeny() {
+        return deny;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("AceSummary [principalName=");
+        builder.append(principalName);
+        builder.append(", allow=");
+        builder.append(allow);
+        builder.append(", deny=");
+        builder.append(deny);
+        builder.append("]");
+        return builder.toString();
+    }
+}
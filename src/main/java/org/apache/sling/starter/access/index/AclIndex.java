@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.index;
+
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Answers "who has access here" and "where does this principal have access"
+ * questions from memory instead of reading the access control content of the
+ * repository.
+ */
+@ProviderType
+public interface AclIndex {
+
+    /**
+     * Checks whether the initial traversal of the repository has completed. Until
+     * then the answers may be incomplete.
+     *
+     * @return true if the index is fully populated, false otherwise
+     */
+    boolean isReady();
+
+    /**
+     * Returns the paths of the access controlled nodes that declare an entry for
+     * the principal.
+     *
+     * @param principalName the name of the principal
+     * @return the paths or an empty set if there are no entries for the principal
+     */
+    @NotNull
+    Set<String> getPaths(@NotNull String principalName);
+
+    /**
+     * Returns a summary of the entries declared on the access controlled node.
+     *
+     * @param path the path of the access controlled node
+     * @return the entries in declaration order or an empty list if there are none
+     */
+    @NotNull
+    List<AceSummary> getEntries(@NotNull String path);
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.index.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.sling.starter.access.index.AceSummary;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compact storage for the index. Principal names and paths are stored once in
+ * a dictionary and referenced by an int id everywhere else. Each entry of an
+ * access control list is encoded into a single int holding the principal id and
+ * the allow/deny flags, and the paths for a principal are kept as a sorted int
+ * array of path ids. The ids of the paths and principals that have no
+ * entries anymore are reused.
+ */
+class AclIndexData {
+    static final int FLAG_ALLOW = 1;
+    static final int FLAG_DENY = 2;
+    private static final int FLAG_BITS = 2;
+    private static final int[] EMPTY = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> principalIds = new HashMap<>();
+    private String[] principals = new String[16];
+    private int principalCount = 0;
+    private int[] freePrincipalIds = EMPTY;
+    private int freePrincipalCount = 0;
+
+    private final Map<String, Integer> pathIds = new HashMap<>();
+    // the same paths in order, to find the paths below a removed node
+    private final NavigableSet<String> sortedPaths = new TreeSet<>();
+    private String[] paths = new String[16];
+    private int[][] entriesByPath = new int[16][];
+    private int pathCount = 0;
+    private int[] freePathIds = EMPTY;
+    private int freePathCount = 0;
+
+    private int[][] pathsByPrincipal = new int[16][];
+    private int[] pathsByPrincipalSize = new int[16];
+
+    /**
+     * Replaces the entries recorded for the access controlled path.
+     *
+     * @param path the access controlled path
+     * @param flagsByPrincipal map of principal name to the allow/deny flags in
+     *          declaration order, or null/empty if the path has no entries anymore
+     */
+    void update(@NotNull String path, @Nullable Map<String, Integer> flagsByPrincipal) {
+        lock.writeLock().lock();
+        try {
+            Integer existingId = pathIds.get(path);
+            if (existingId != null) {
+                removePath(existingId);
+            }
+            if (flagsByPrincipal != null && !flagsByPrincipal.isEmpty()) {
+                int pathId = allocatePathId(path);
+                int[] entries = new int[flagsByPrincipal.size()];
+                int i = 0;
+                for (Entry<String, Integer> entry : flagsByPrincipal.entrySet()) {
+                    int principalId = principalId(entry.getKey());
+                    entries[i++] = (principalId << FLAG_BITS) | (entry.getValue() & (FLAG_ALLOW | FLAG_DENY));
+                    addPathToPrincipal(principalId, pathId);
+                }
+                entriesByPath[pathId] = entries;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets the entries for the access controlled path.
+     */
+    void remove(@NotNull String path) {
+        update(path, null);
+    }
+
+    /**
+     * Forgets the entries for the path and all the paths below it, as when the
+     * node is removed or moved away.
+     *
+     * @param path the path of the removed node
+     * @return the number of access controlled paths that were forgotten
+     */
+    int removeTree(@NotNull String path) {
+        lock.writeLock().lock();
+        try {
+            List<String> removed = new ArrayList<>();
+            if ("/".equals(path)) {
+                removed.addAll(sortedPaths);
+            } else {
+                if (pathIds.containsKey(path)) {
+                    removed.add(path);
+                }
+                // '0' follows '/', so this is every path that starts with path + "/"
+                removed.addAll(sortedPaths.subSet(path + "/", true, path + "0", false));
+            }
+            for (String removedPath : removed) {
+                removePath(pathIds.get(removedPath));
+            }
+            return removed.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets everything.
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            principalIds.clear();
+            principals = new String[16];
+            principalCount = 0;
+            freePrincipalIds = EMPTY;
+            freePrincipalCount = 0;
+            pathIds.clear();
+            sortedPaths.clear();
+            paths = new String[16];
+            entriesByPath = new int[16][];
+            pathCount = 0;
+            freePathIds = EMPTY;
+            freePathCount = 0;
+            pathsByPrincipal = new int[16][];
+            pathsByPrincipalSize = new int[16];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @NotNull
+    Set<String> getPaths(@NotNull String principalName) {
+        lock.readLock().lock();
+        try {
+            Integer principalId = principalIds.get(principalName);
+            if (principalId == null) {
+                return Collections.emptySet();
+            }
+            int size = pathsByPrincipalSize[principalId];
+            Set<String> result = new LinkedHashSet<>();
+            int[] ids = pathsByPrincipal[principalId];
+            for (int i = 0; i < size; i++) {
+                result.add(paths[ids[i]]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @NotNull
+    List<AceSummary> getEntries(@NotNull String path) {
+        lock.readLock().lock();
+        try {
+            Integer pathId = pathIds.get(path);
+            if (pathId == null) {
+                return Collections.emptyList();
+            }
+            int[] entries = entriesByPath[pathId];
+            List<AceSummary> result = new ArrayList<>(entries.length);
+            for (int entry : entries) {
+                result.add(new AceSummary(
+                        principals[entry >>> FLAG_BITS], (entry & FLAG_ALLOW) != 0, (entry & FLAG_DENY) != 0));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of access controlled paths in the index
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return pathIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of principals that have entries in the index
+     */
+    int principalSize() {
+        lock.readLock().lock();
+        try {
+            return principalIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Helper to accumulate the flags for a principal while reading an access control list
+     */
+    static void addFlags(@NotNull Map<String, Integer> flagsByPrincipal, @NotNull String principalName, int flags) {
+        flagsByPrincipal.merge(principalName, flags, (a, b) -> a | b);
+    }
+
+    static @NotNull Map<String, Integer> newFlagsMap() {
+        return new LinkedHashMap<>();
+    }
+
+    private int principalId(String principalName) {
+        Integer existingId = principalIds.get(principalName);
+        if (existingId != null) {
+            return existingId;
+        }
+        int id;
+        if (freePrincipalCount > 0) {
+            id = freePrincipalIds[--freePrincipalCount];
+        } else {
+            id = principalCount++;
+            if (id == principals.length) {
+                int newLength = principals.length * 2;
+                principals = Arrays.copyOf(principals, newLength);
+                pathsByPrincipal = Arrays.copyOf(pathsByPrincipal, newLength);
+                pathsByPrincipalSize = Arrays.copyOf(pathsByPrincipalSize, newLength);
+            }
+        }
+        principals[id] = principalName;
+        pathsByPrincipal[id] = EMPTY;
+        pathsByPrincipalSize[id] = 0;
+        principalIds.put(principalName, id);
+        return id;
+    }
+
+    private int allocatePathId(String path) {
+        int pathId;
+        if (freePathCount > 0) {
+            pathId = freePathIds[--freePathCount];
+        } else {
+            pathId = pathCount++;
+            if (pathId == paths.length) {
+                paths = Arrays.copyOf(paths, paths.length * 2);
+                entriesByPath = Arrays.copyOf(entriesByPath, entriesByPath.length * 2);
+            }
+        }
+        paths[pathId] = path;
+        pathIds.put(path, pathId);
+        sortedPaths.add(path);
+        return pathId;
+    }
+
+    private void removePath(int pathId) {
+        for (int entry : entriesByPath[pathId]) {
+            removePathFromPrincipal(entry >>> FLAG_BITS, pathId);
+        }
+        pathIds.remove(paths[pathId]);
+        sortedPaths.remove(paths[pathId]);
+        paths[pathId] = null;
+        entriesByPath[pathId] = null;
+        if (freePathCount == freePathIds.length) {
+            freePathIds = Arrays.copyOf(freePathIds, Math.max(16, freePathIds.length * 2));
+        }
+        freePathIds[freePathCount++] = pathId;
+    }
+
+    private void releasePrincipalId(int principalId) {
+        principalIds.remove(principals[principalId]);
+        principals[principalId] = null;
+        pathsByPrincipal[principalId] = EMPTY;
+        if (freePrincipalCount == freePrincipalIds.length) {
+            freePrincipalIds = Arrays.copyOf(freePrincipalIds, Math.max(16, freePrincipalIds.length * 2));
+        }
+        freePrincipalIds[freePrincipalCount++] = principalId;
+    }
+
+    private void addPathToPrincipal(int principalId, int pathId) {
+        int[] ids = pathsByPrincipal[principalId];
+        int size = pathsByPrincipalSize[principalId];
+        int idx = Arrays.binarySearch(ids, 0, size, pathId);
+        if (idx < 0) {
+            int insertAt = -idx - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+                pathsByPrincipal[principalId] = ids;
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = pathId;
+            pathsByPrincipalSize[principalId] = size + 1;
+        }
+    }
+
+    private void removePathFromPrincipal(int principalId, int pathId) {
+        int[] ids = pathsByPrincipal[principalId];
+        int size = pathsByPrincipalSize[principalId];
+        int idx = Arrays.binarySearch(ids, 0, size, pathId);
+        if (idx >= 0) {
+            System.arraycopy(ids, idx + 1, ids, idx, size - idx - 1);
+            pathsByPrincipalSize[principalId] = size - 1;
+            if (size == 1) {
+                releasePrincipalId(principalId);
+            }
+        }
+    }
+}
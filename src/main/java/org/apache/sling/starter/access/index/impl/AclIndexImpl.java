@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.index.impl;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+import javax.jcr.observation.ObservationManager;
+import javax.jcr.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jackrabbit.oak.spi.security.authorization.accesscontrol.AccessControlConstants;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.starter.access.index.AceSummary;
+import org.apache.sling.starter.access.index.AclIndex;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the {@link AclIndex} current. The index is populated by a throttled
+ * background traversal of the access control lists after activation and then
+ * updated from the observation events for the access control content, and
+ * from the removals and moves of any node, which take the access control
+ * lists below them along.
+ *
+ * The component is only active when a configuration exists and requires a
+ * service user mapping for the "acl-index" sub service that is allowed to read
+ * the access control content of the whole repository.
+ */
+@Component(service = AclIndex.class, configurationPolicy = ConfigurationPolicy.REQUIRE)
+@Designate(ocd = AclIndexImpl.Config.class)
+public class AclIndexImpl implements AclIndex, EventListener {
+    static final String SUBSERVICE_NAME = "acl-index";
+
+    private static final String POLICY_SEGMENT = "/" + AccessControlConstants.REP_POLICY;
+
+    @ObjectClassDefinition(
+            name = "Apache Sling Starter ACL Index",
+            description = "In-memory index of the access control entries declared in the repository")
+    public @interface Config {
+        @AttributeDefinition(
+                name = "Batch Size",
+                description = "Number of access control lists to read before pausing the initial traversal")
+        int batch_size() default 500;
+
+        @AttributeDefinition(
+                name = "Pause (ms)",
+                description = "Time to pause between batches of the initial traversal")
+        long batch_pause_ms() default 50;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final AclIndexData data = new AclIndexData();
+
+    private ResourceResolver resolver;
+
+    /**
+     * The session of the service resource resolver, only used by the worker thread
+     */
+    private final Session session;
+
+    /**
+     * Listener for the removals and moves of any node
+     */
+    private final EventListener removalListener = this::onRemoval;
+
+    // read by the observation threads
+    private volatile ExecutorService executor;
+
+    private volatile boolean ready = false;
+
+    @Activate
+    public AclIndexImpl(@Reference ResourceResolverFactory resolverFactory, Config config) throws LoginException {
+        resolver =
+                resolverFactory.getServiceResourceResolver(Map.of(ResourceResolverFactory.SUBSERVICE, SUBSERVICE_NAME));
+        session = resolver.adaptTo(Session.class);
+        if (session == null) {
+            logger.error("The {} service resource resolver is not backed by a JCR session", SUBSERVICE_NAME);
+            resolver.close();
+            resolver = null;
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "Sling Starter ACL Index"));
+        try {
+            // listen before traversing so nothing that changes during the traversal is missed
+            ObservationManager observationManager = session.getWorkspace().getObservationManager();
+            observationManager.addEventListener(
+                    this,
+                    Event.NODE_ADDED
+                            | Event.NODE_REMOVED
+                            | Event.PROPERTY_ADDED
+                            | Event.PROPERTY_CHANGED
+                            | Event.PROPERTY_REMOVED,
+                    "/",
+                    true,
+                    null,
+                    new String[] {
+                        AccessControlConstants.MIX_REP_ACCESS_CONTROLLABLE,
+                        AccessControlConstants.NT_REP_ACL,
+                        AccessControlConstants.NT_REP_ACE
+                    },
+                    true);
+            // a removed or moved subtree is reported once for its top node, whatever its type
+            observationManager.addEventListener(
+                    removalListener, Event.NODE_REMOVED | Event.NODE_MOVED, "/", true, null, null, true);
+        } catch (RepositoryException e) {
+            logger.error("Failed to register the observation listener", e);
+        }
+        executor.execute(() -> traverse(session, config.batch_size(), config.batch_pause_ms()));
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        ExecutorService currentExecutor = executor;
+        if (currentExecutor != null) {
+            currentExecutor.shutdownNow();
+            try {
+                currentExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        if (resolver != null) {
+            try {
+                if (session.isLive()) {
+                    ObservationManager observationManager =
+                            session.getWorkspace().getObservationManager();
+                    observationManager.removeEventListener(this);
+                    observationManager.removeEventListener(removalListener);
+                }
+            } catch (RepositoryException e) {
+                logger.debug("Failed to remove the observation listener", e);
+            }
+            resolver.close();
+            resolver = null;
+        }
+        data.clear();
+        ready = false;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public @NotNull Set<String> getPaths(@NotNull String principalName) {
+        return data.getPaths(principalName);
+    }
+
+    @Override
+    public @NotNull List<AceSummary> getEntries(@NotNull String path) {
+        return data.getEntries(path);
+    }
+
+    @Override
+    public void onEvent(EventIterator events) {
+        Set<String> changedPaths = new LinkedHashSet<>();
+        while (events.hasNext()) {
+            try {
+                String accessControlledPath =
+                        toAccessControlledPath(events.nextEvent().getPath());
+                if (accessControlledPath != null) {
+                    changedPaths.add(accessControlledPath);
+                }
+            } catch (RepositoryException e) {
+                logger.debug("Failed to read the event path", e);
+            }
+        }
+        ExecutorService currentExecutor = executor;
+        if (!changedPaths.isEmpty() && currentExecutor != null) {
+            // re-read on the worker thread which is the only user of the session
+            currentExecutor.execute(() -> reindex(session, changedPaths));
+        }
+    }
+
+    /**
+     * Forget the access control lists of removed subtrees and index the ones
+     * of moved subtrees at their destination
+     */
+    void onRemoval(EventIterator events) {
+        List<String> removedPaths = new ArrayList<>();
+        List<String> movedToPaths = new ArrayList<>();
+        while (events.hasNext()) {
+            Event event = events.nextEvent();
+            try {
+                if (event.getType() == Event.NODE_MOVED) {
+                    movedToPaths.add(event.getPath());
+                } else {
+                    removedPaths.add(event.getPath());
+                }
+            } catch (RepositoryException e) {
+                logger.debug("Failed to read the event path", e);
+            }
+        }
+        ExecutorService currentExecutor = executor;
+        if ((!removedPaths.isEmpty() || !movedToPaths.isEmpty()) && currentExecutor != null) {
+            currentExecutor.execute(() -> {
+                // a move is also reported as the removal of the source
+                removedPaths.forEach(data::removeTree);
+                for (String path : movedToPaths) {
+                    reindexTree(session, path);
+                }
+            });
+        }
+    }
+
+    /**
+     * Calculate the path of the access controlled node from the path of an
+     * event for the access control content
+     *
+     * @param eventPath the path of the event
+     * @return the path of the access controlled node or null if the event was not
+     *          for access control content
+     */
+    static String toAccessControlledPath(String eventPath) {
+        if (eventPath == null) {
+            return null;
+        }
+        int idx = eventPath.indexOf(POLICY_SEGMENT);
+        if (idx < 0) {
+            return null;
+        }
+        int end = idx + POLICY_SEGMENT.length();
+        if (end < eventPath.length() && eventPath.charAt(end) != '/') {
+            // some other name that only starts with rep:policy
+            return null;
+        }
+        return idx == 0 ? "/" : eventPath.substring(0, idx);
+    }
+
+    /**
+     * Populate the index with all the access control lists in the repository
+     */
+    protected void traverse(Session session, int batchSize, long pauseMs) {
+        long start = System.currentTimeMillis();
+        int count = 0;
+        try {
+            session.refresh(false);
+            Query query = session.getWorkspace()
+                    .getQueryManager()
+                    .createQuery(
+                            String.format("SELECT * FROM [%s]", AccessControlConstants.NT_REP_ACL), Query.JCR_SQL2);
+            NodeIterator nodes = query.execute().getNodes();
+            while (nodes.hasNext() && !Thread.currentThread().isInterrupted()) {
+                Node policyNode = nodes.nextNode();
+                if (AccessControlConstants.REP_POLICY.equals(policyNode.getName())) {
+                    index(policyNode.getParent().getPath(), policyNode);
+                    count++;
+                    if (count % batchSize == 0 && pauseMs > 0) {
+                        Thread.sleep(pauseMs);
+                    }
+                }
+            }
+            ready = !Thread.currentThread().isInterrupted();
+            logger.info("Indexed {} access control lists in {} ms", count, System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RepositoryException e) {
+            logger.error("Failed to traverse the access control lists", e);
+        }
+    }
+
+    /**
+     * Re-read the access control lists of the nodes with the latest state of
+     * the repository
+     */
+    protected void reindex(Session session, Collection<String> paths) {
+        if (!session.isLive()) {
+            // closed by deactivate
+            return;
+        }
+        try {
+            // the long lived session does not see the changes of other sessions by itself
+            session.refresh(false);
+        } catch (RepositoryException e) {
+            logger.warn("Failed to refresh the session", e);
+            return;
+        }
+        for (String path : paths) {
+            reindex(session, path);
+        }
+    }
+
+    /**
+     * Re-read the access control list of the node
+     */
+    protected void reindex(Session session, String path) {
+        try {
+            String policyPath = "/".equals(path) ? POLICY_SEGMENT : path + POLICY_SEGMENT;
+            if (session.nodeExists(policyPath)) {
+                index(path, session.getNode(policyPath));
+            } else {
+                data.remove(path);
+            }
+        } catch (RepositoryException e) {
+            logger.warn("Failed to index the access control list of {}", path, e);
+        }
+    }
+
+    /**
+     * Read the access control lists of the node and all its descendants
+     */
+    protected void reindexTree(Session session, String path) {
+        if (!session.isLive()) {
+            return;
+        }
+        try {
+            session.refresh(false);
+            // JCR names can not contain brackets, so the path needs no escaping
+            Query query = session.getWorkspace()
+                    .getQueryManager()
+                    .createQuery(
+                            String.format(
+                                    "SELECT * FROM [%s] AS a WHERE ISDESCENDANTNODE(a, [%s])",
+                                    AccessControlConstants.NT_REP_ACL, path),
+                            Query.JCR_SQL2);
+            NodeIterator nodes = query.execute().getNodes();
+            while (nodes.hasNext()) {
+                Node policyNode = nodes.nextNode();
+                if (AccessControlConstants.REP_POLICY.equals(policyNode.getName())) {
+                    index(policyNode.getParent().getPath(), policyNode);
+                }
+            }
+        } catch (RepositoryException e) {
+            logger.warn("Failed to index the access control lists below {}", path, e);
+        }
+    }
+
+    private void index(String path, Node policyNode) throws RepositoryException {
+        Map<String, Integer> flagsByPrincipal = AclIndexData.newFlagsMap();
+        NodeIterator aces = policyNode.getNodes();
+        while (aces.hasNext()) {
+            Node ace = aces.nextNode();
+            if (ace.hasProperty(AccessControlConstants.REP_PRINCIPAL_NAME)) {
+                String principalName = ace.getProperty(AccessControlConstants.REP_PRINCIPAL_NAME)
+                        .getString();
+                if (ace.isNodeType(AccessControlConstants.NT_REP_GRANT_ACE)) {
+                    AclIndexData.addFlags(flagsByPrincipal, principalName, AclIndexData.FLAG_ALLOW);
+                } else if (ace.isNodeType(AccessControlConstants.NT_REP_DENY_ACE)) {
+                    AclIndexData.addFlags(flagsByPrincipal, principalName, AclIndexData.FLAG_DENY);
+                }
+            }
+        }
+        data.update(path, flagsByPrincipal.isEmpty() ? Collections.emptyMap() : flagsByPrincipal);
+    }
+
+    AclIndexData getData() {
+        return data;
+    }
+}
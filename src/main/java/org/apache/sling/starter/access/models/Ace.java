@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -53,8 +54,6 @@ import org.apache.jackrabbit.api.JackrabbitSession;
 import org.apache.jackrabbit.api.JackrabbitWorkspace;
 import org.apache.jackrabbit.api.security.authorization.PrivilegeManager;
 import org.apache.jackrabbit.api.security.principal.PrincipalManager;
-import org.apache.jackrabbit.api.security.user.Authorizable;
-import org.apache.jackrabbit.api.security.user.UserManager;
 import org.apache.jackrabbit.oak.spi.security.authorization.restriction.RestrictionDefinition;
 import org.apache.jackrabbit.oak.spi.security.authorization.restriction.RestrictionProvider;
 import org.apache.jackrabbit.oak.spi.security.privilege.PrivilegeConstants;
@@ -84,6 +83,22 @@ public class Ace extends AccessFormPage {
     protected static final Pattern RESTRICTION_PATTERN_DELETE =
             Pattern.compile(String.format("^restriction@([^@]+)@([^@]+)%s$", SlingPostConstants.SUFFIX_DELETE));
 
+    // prefix of the order value that places the entry before another principal
+    protected static final String ORDER_BEFORE_PREFIX = "before ";
+
+    // selector of the rendering mode that builds the privileges table in the browser
+    protected static final String SELECTOR_COMPACT = "compact";
+
+    // bits of the privilege state in the compact JSON document
+    protected static final int STATE_GRANTED = 1;
+    protected static final int STATE_DENIED = 2;
+    protected static final int STATE_ALLOW_EXISTS = 4;
+    protected static final int STATE_DENY_EXISTS = 8;
+
+    // bits of the restriction flags in the compact JSON document
+    protected static final int RESTRICTION_DENY = 1;
+    protected static final int RESTRICTION_EXISTS = 2;
+
     // use these hints to influence the order that the privileges are displayed
     protected static final Map<String, Integer> privilegesPriority = createPrivilegesPriorityMap();
 
@@ -100,6 +115,7 @@ public class Ace extends AccessFormPage {
     }
 
     protected String principalId;
+    protected ResolvedPrincipal resolvedPrincipal = null;
     protected Map<Privilege, PrivilegeItem> persistedPrivilegesMap = null;
     private boolean aceExists;
 
@@ -112,6 +128,9 @@ public class Ace extends AccessFormPage {
     @OSGiService
     public GetAcl getAcl = null;
 
+    @OSGiService
+    PrivilegeTableCache privilegeTableCache = null;
+
     /**
      * Instantiates the model.
      */
@@ -120,30 +139,44 @@ public class Ace extends AccessFormPage {
     protected void init() throws IOException {
         super.init();
         principalId = request.getParameter("pid");
+        try {
+            // resolve once up front and share the result with all the consumers
+            resolvedPrincipal = resolvePrincipal();
+        } catch (RepositoryException e) {
+            // leave it to be resolved again, and fail, on first use
+            resolvedPrincipal = null;
+        }
     }
 
     public String getPrincipalId() {
         return principalId;
     }
 
-    public boolean getIsInvalidPrincipal() throws RepositoryException {
-        boolean isInValidPrincipal = true;
-        if (principalId != null && !principalId.isEmpty()) {
-            Session session = request.getResourceResolver().adaptTo(Session.class);
-            if (session instanceof JackrabbitSession jackrabbitSession) {
-                UserManager userManager = jackrabbitSession.getUserManager();
-                if (userManager != null) {
-                    Authorizable authorizable = userManager.getAuthorizable(principalId);
-                    if (authorizable != null) {
-                        isInValidPrincipal = false;
-                    } else {
-                        // no user/group matches the supplied principal id
-                    }
-                }
-            }
+    /**
+     * Resolves the user or group for the principal id of the request
+     *
+     * @return the resolved principal
+     */
+    protected ResolvedPrincipal resolvePrincipal() throws RepositoryException {
+        Session session = request.getResourceResolver().adaptTo(Session.class);
+        return ResolvedPrincipal.resolve(session, principalId);
+    }
+
+    /**
+     * Returns the user or group for the principal id of the request that
+     * was resolved when the model was instantiated.
+     *
+     * @return the resolved principal
+     */
+    public ResolvedPrincipal getResolvedPrincipal() throws RepositoryException {
+        if (resolvedPrincipal == null) {
+            resolvedPrincipal = resolvePrincipal();
         }
+        return resolvedPrincipal;
+    }
 
-        return isInValidPrincipal;
+    public boolean getIsInvalidPrincipal() throws RepositoryException {
+        return !getResolvedPrincipal().isExists();
     }
 
     protected String getAcePath() {
@@ -154,6 +187,16 @@ public class Ace extends AccessFormPage {
         return aceExists;
     }
 
+    /**
+     * Checks whether the page was requested with the "compact" selector, in which
+     * case the privileges table is built in the browser from {@link #getPrivilegesAsCompactJSON()}.
+     *
+     * @return true for the compact rendering mode, false otherwise
+     */
+    public boolean isCompact() {
+        return Arrays.asList(request.getRequestPathInfo().getSelectors()).contains(SELECTOR_COMPACT);
+    }
+
     public Collection<PrivilegeItem> getPrivileges() throws RepositoryException {
         Map<Privilege, PrivilegeItem> privilegesMap = getPersistedPrivilegesMap();
         if (privilegesMap == null || privilegesMap.isEmpty()) {
@@ -351,13 +394,15 @@ public class Ace extends AccessFormPage {
 
                 RestrictionDefinition rd = srMap.get(restrictionName);
                 if (rd != null) {
-                    Object value = entry.getValue();
                     String[] strings = entry.getValue();
+                    RestrictionValues value;
                     if (rd.getRequiredType().isArray()) {
-                        value = strings;
+                        value = RestrictionValues.ofStrings(strings);
                     } else if (strings.length > 0) {
                         // use the first one?
-                        value = strings[0];
+                        value = RestrictionValues.ofStrings(new String[] {strings[0]});
+                    } else {
+                        value = RestrictionValues.EMPTY;
                     }
 
                     RestrictionItem ri = new RestrictionItem(rd, value, false);
@@ -457,12 +502,14 @@ public class Ace extends AccessFormPage {
             String acePath = getAcePath();
             persistedPrivilegesMap = initialPrivilegesMap(privilegeToLongestPath, acePath);
 
-            JsonObject ace;
-            try {
-                ace = getAce.getAce(jcrSession, acePath, getPrincipalId());
-            } catch (ResourceNotFoundException rnfe) {
-                // no ACE exists yet?
-                ace = null;
+            JsonObject ace = null;
+            if (getResolvedPrincipal().isExists()) {
+                try {
+                    ace = getAce.getAce(jcrSession, acePath, getPrincipalId());
+                } catch (ResourceNotFoundException rnfe) {
+                    // no ACE exists yet?
+                    ace = null;
+                }
             }
             if (ace != null) {
                 aceExists = true;
@@ -510,16 +557,16 @@ public class Ace extends AccessFormPage {
             String rn = entry.getKey();
             RestrictionDefinition rd = srMap.get(rn);
             if (rd != null) {
-                Object value = null;
+                RestrictionValues value = RestrictionValues.EMPTY;
                 JsonValue jsonValue = entry.getValue();
                 if (jsonValue instanceof JsonArray jsonArray) {
                     String[] values = new String[jsonArray.size()];
                     for (int i = 0; i < values.length; i++) {
                         values[i] = jsonArray.getString(i);
                     }
-                    value = values;
+                    value = RestrictionValues.ofStrings(values);
                 } else if (jsonValue instanceof JsonString jsonString) {
-                    value = jsonString.getString();
+                    value = RestrictionValues.ofStrings(new String[] {jsonString.getString()});
                 }
                 restrictionItems.add(new RestrictionItem(rd, value, true));
             }
@@ -547,7 +594,10 @@ public class Ace extends AccessFormPage {
      * be used on the client side UI.
      * @return JSON representation of the privilege aggregations
      * @throws RepositoryException
+     * @deprecated looks up the aggregates of every privilege. The ACE page now uses
+     *      the index tables of {@link #getPrivilegeTableAsJSON()}.
      */
+    @Deprecated(since = "2.1.0")
     public String getPrivilegeAggregationsAsJSON() throws RepositoryException {
         JsonBuilderFactory factory = Json.createBuilderFactory(Collections.emptyMap());
         JsonObjectBuilder builder = factory.createObjectBuilder();
@@ -577,6 +627,143 @@ public class Ace extends AccessFormPage {
         return jsonObj.toString();
     }
 
+    /**
+     * Returns the privileges table as one compact JSON document. The privileges are
+     * listed in display order and referenced by their index:
+     * <ul>
+     * <li>names - the privilege names</li>
+     * <li>parents - the index of the aggregate privilege that contains it, or -1</li>
+     * <li>depths - the depth of the privilege in the aggregate hierarchy</li>
+     * <li>states - bitmask of the granted, denied, allow exists and deny exists state</li>
+     * <li>restrictionNames - the names of the restrictions that are referenced below</li>
+     * <li>restrictions - [privilege index, flags, restriction name index, [values]] for
+     *      each declared restriction where the flags mark the deny column and an existing restriction</li>
+     * <li>deletes - [privilege index, flags, restriction name index] for each restriction
+     *      that was requested to be removed</li>
+     * <li>aggregateOffsets, aggregateIndices, containerOffsets and containerIndices - the
+     *      aggregate privilege relationships, see {@link PrivilegeTable}</li>
+     * </ul>
+     *
+     * @return JSON representation of the privileges table
+     * @throws RepositoryException
+     */
+    public String getPrivilegesAsCompactJSON() throws RepositoryException {
+        List<PrivilegeItem> privileges = new ArrayList<>(getPrivileges());
+        Map<String, Integer> pathToIndex = new HashMap<>();
+        for (int i = 0; i < privileges.size(); i++) {
+            pathToIndex.put(privileges.get(i).getLongestPath(), i);
+        }
+
+        JsonArrayBuilder names = Json.createArrayBuilder();
+        JsonArrayBuilder parents = Json.createArrayBuilder();
+        JsonArrayBuilder depths = Json.createArrayBuilder();
+        JsonArrayBuilder states = Json.createArrayBuilder();
+        JsonArrayBuilder restrictions = Json.createArrayBuilder();
+        JsonArrayBuilder deletes = Json.createArrayBuilder();
+        Map<String, Integer> restrictionNames = new LinkedHashMap<>();
+        for (int i = 0; i < privileges.size(); i++) {
+            PrivilegeItem pi = privileges.get(i);
+            names.add(pi.getName());
+            String longestPath = pi.getLongestPath();
+            int slash = longestPath.lastIndexOf('/');
+            parents.add(slash < 0 ? -1 : pathToIndex.getOrDefault(longestPath.substring(0, slash), -1));
+            depths.add(pi.getDepth());
+            int state = 0;
+            if (pi.getGranted()) {
+                state |= STATE_GRANTED;
+            }
+            if (pi.getDenied()) {
+                state |= STATE_DENIED;
+            }
+            if (pi.isAllowExists()) {
+                state |= STATE_ALLOW_EXISTS;
+            }
+            if (pi.isDenyExists()) {
+                state |= STATE_DENY_EXISTS;
+            }
+            states.add(state);
+
+            for (boolean forAllow : new boolean[] {true, false}) {
+                int flags = forAllow ? 0 : RESTRICTION_DENY;
+                List<RestrictionItem> declared = forAllow ? pi.getAllowRestrictions() : pi.getDenyRestrictions();
+                if (declared != null) {
+                    for (RestrictionItem ri : declared) {
+                        int rIdx = restrictionNames.computeIfAbsent(ri.getName(), rn -> restrictionNames.size());
+                        restrictions.add(Json.createArrayBuilder()
+                                .add(i)
+                                .add(ri.isExists() ? flags | RESTRICTION_EXISTS : flags)
+                                .add(rIdx)
+                                .add(Json.createArrayBuilder(ri.getValues())));
+                    }
+                }
+                for (String rn : forAllow ? pi.getAllowRestrictionsToDelete() : pi.getDenyRestrictionsToDelete()) {
+                    int rIdx = restrictionNames.computeIfAbsent(rn, key -> restrictionNames.size());
+                    deletes.add(Json.createArrayBuilder().add(i).add(flags).add(rIdx));
+                }
+            }
+        }
+
+        JsonObjectBuilder json = Json.createObjectBuilder()
+                .add("names", names)
+                .add("parents", parents)
+                .add("depths", depths)
+                .add("states", states)
+                .add("restrictionNames", Json.createArrayBuilder(restrictionNames.keySet()))
+                .add("restrictions", restrictions)
+                .add("deletes", deletes);
+        addPrivilegeTable(json, getPrivilegeTable(privileges));
+        // the document is embedded in a script element, so never let a value close it
+        return json.build().toString().replace("<", "\\u003c");
+    }
+
+    /**
+     * Returns the names of the privileges in display order and the integer index
+     * tables of their aggregate relationships, see {@link PrivilegeTable}, for
+     * propagating the checkbox state in the browser.
+     *
+     * @return JSON representation of the privilege table
+     * @throws RepositoryException
+     */
+    public String getPrivilegeTableAsJSON() throws RepositoryException {
+        List<PrivilegeItem> privileges = new ArrayList<>(getPrivileges());
+        JsonArrayBuilder names = Json.createArrayBuilder();
+        privileges.forEach(pi -> names.add(pi.getName()));
+        JsonObjectBuilder json = Json.createObjectBuilder().add("names", names);
+        addPrivilegeTable(json, getPrivilegeTable(privileges));
+        return json.build().toString().replace("<", "\\u003c");
+    }
+
+    /**
+     * Returns the cached aggregate relationships of the privileges
+     *
+     * @param privileges the privileges in display order
+     * @return the privilege table
+     * @throws RepositoryException
+     */
+    PrivilegeTable getPrivilegeTable(List<PrivilegeItem> privileges) throws RepositoryException {
+        Map<String, Privilege> privilegesByName = new HashMap<>();
+        for (Privilege privilege : getPersistedPrivilegesMap().keySet()) {
+            privilegesByName.put(privilege.getName(), privilege);
+        }
+        List<String> names = privileges.stream().map(PrivilegeItem::getName).toList();
+        return privilegeTableCache.getTable(names, privilegesByName);
+    }
+
+    private static void addPrivilegeTable(JsonObjectBuilder json, PrivilegeTable table) {
+        json.add("aggregateOffsets", toJsonArray(table.aggregateOffsets()))
+                .add("aggregateIndices", toJsonArray(table.aggregateIndices()))
+                .add("containerOffsets", toJsonArray(table.containerOffsets()))
+                .add("containerIndices", toJsonArray(table.containerIndices()));
+    }
+
+    private static JsonArrayBuilder toJsonArray(int[] values) {
+        JsonArrayBuilder array = Json.createArrayBuilder();
+        for (int value : values) {
+            array.add(value);
+        }
+        return array;
+    }
+
     public String getExistingRestrictionNamesAsJSON() throws RepositoryException {
         JsonObjectBuilder jsonObjBuilder = Json.createObjectBuilder();
         for (boolean forAllow : new boolean[] {true, false}) {
@@ -607,14 +794,37 @@ public class Ace extends AccessFormPage {
         return parameter == null ? "" : parameter;
     }
 
+    /**
+     * Returns the principal from a "before [principal]" order value so the
+     * choice can be redisplayed without loading all the other principals.
+     *
+     * @return the principal name or null if the order is not relative to another principal
+     */
+    public String getOrderBeforePrincipal() {
+        String orderValue = getOrderValue();
+        if (orderValue.startsWith(ORDER_BEFORE_PREFIX)) {
+            String name = orderValue.substring(ORDER_BEFORE_PREFIX.length());
+            if (!name.isEmpty()) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @deprecated resolves every principal of the ACL. The ACE page now loads
+     *      the choices on demand with the "aceorder.json" selector.
+     */
+    @Deprecated(since = "2.1.0")
     public Collection<PrincipalPrivilege> getOrderList() throws RepositoryException {
         List<PrincipalPrivilege> list = new ArrayList<>();
         Session jcrSession = request.getResourceResolver().adaptTo(Session.class);
         PrincipalManager principalManager = ((JackrabbitSession) jcrSession).getPrincipalManager();
         String pid = getPrincipalId();
+        String principalName = getResolvedPrincipal().getPrincipalName();
         JsonObject acl = getAcl.getAcl(jcrSession, getAcePath());
         for (String uid : acl.keySet()) {
-            if (pid != null && pid.equals(uid)) {
+            if ((pid != null && pid.equals(uid)) || (principalName != null && principalName.equals(uid))) {
                 // skip it
                 continue;
             }
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.models;
+
+/**
+ * The aggregate relationships of a list of privileges where each privilege
+ * is referenced by its index in the list. The aggregated privileges of the
+ * privilege at index i are aggregateIndices[aggregateOffsets[i]] up to
+ * aggregateIndices[aggregateOffsets[i + 1]], in display order so they are
+ * processed from the top down, and the same for the privileges that
+ * contain it in containerIndices.
+ *
+ * @param aggregateOffsets the offsets of the aggregated privileges of each privilege
+ * @param aggregateIndices the indices of the aggregated privileges
+ * @param containerOffsets the offsets of the containing privileges of each privilege
+ * @param containerIndices the indices of the containing privileges
+ */
+public record PrivilegeTable(
+        int[] aggregateOffsets, int[] aggregateIndices, int[] containerOffsets, int[] containerIndices) {}
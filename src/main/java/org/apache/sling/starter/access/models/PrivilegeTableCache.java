@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.models;
+
+import javax.jcr.security.Privilege;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Keeps the aggregate privilege relationships of the privileges shown on the
+ * ACE page as {@link PrivilegeTable}s, so the page does not walk the
+ * aggregates of every privilege on every request.
+ */
+@ProviderType
+public interface PrivilegeTableCache {
+
+    /**
+     * Returns the table of the privileges, calculating it only if there is no
+     * cached copy for the same names
+     *
+     * @param names the privilege names in display order
+     * @param privileges the privileges by their name
+     * @return the table
+     */
+    @NotNull
+    PrivilegeTable getTable(@NotNull List<String> names, @NotNull Map<String, Privilege> privileges);
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.models;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.security.Principal;
+
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.user.Authorizable;
+import org.apache.jackrabbit.api.security.user.UserManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The result of resolving the principal id of a request once, so that the
+ * consumers do not need to resolve it again.
+ */
+public final class ResolvedPrincipal {
+    private final String principalId;
+    private final Authorizable authorizable;
+    private final Principal principal;
+    private final boolean group;
+
+    private ResolvedPrincipal(
+            @Nullable String principalId,
+            @Nullable Authorizable authorizable,
+            @Nullable Principal principal,
+            boolean group) {
+        this.principalId = principalId;
+        this.authorizable = authorizable;
+        this.principal = principal;
+        this.group = group;
+    }
+
+    /**
+     * Resolve the user or group for the principal id
+     *
+     * @param jcrSession the current session
+     * @param principalId the principal id to resolve
+     * @return the resolved principal, which does not exist if no user or group
+     *          matches the principal id
+     */
+    public static @NotNull ResolvedPrincipal resolve(@Nullable Session jcrSession, @Nullable String principalId)
+            throws RepositoryException {
+        if (principalId != null
+                && !principalId.isEmpty()
+                && jcrSession instanceof JackrabbitSession jackrabbitSession) {
+            UserManager userManager = jackrabbitSession.getUserManager();
+            if (userManager != null) {
+                Authorizable authorizable = userManager.getAuthorizable(principalId);
+                if (authorizable != null) {
+                    return new ResolvedPrincipal(
+                            principalId, authorizable, authorizable.getPrincipal(), authorizable.isGroup());
+                }
+            }
+        }
+        // no user/group matches the supplied principal id
+        return new ResolvedPrincipal(principalId, null, null, false);
+    }
+
+    public @Nullable String getPrincipalId() {
+        return principalId;
+    }
+
+    public @Nullable Authorizable getAuthorizable() {
+        return authorizable;
+    }
+
+    public @Nullable Principal getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * @return the name of the resolved principal, or the principal id if it was not resolved
+     */
+    public @Nullable String getPrincipalName() {
+        return principal == null ? principalId : principal.getName();
+    }
+
+    public boolean isGroup() {
+        return group;
+    }
+
+    public boolean isExists() {
+        return authorizable != null;
+    }
+}
@@ -19,24 +19,34 @@
 package org.apache.sling.starter.access.models;
 
 import javax.jcr.RepositoryException;
-import javax.jcr.Value;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import org.apache.jackrabbit.oak.spi.security.authorization.restriction.RestrictionDefinition;
 
 public class RestrictionItem {
-    private RestrictionDefinition rd;
-    private Object value;
+    private final RestrictionDefinition rd;
+    private final RestrictionValues values;
+    private final RepositoryException conversionFailure;
     private boolean exists;
 
     public RestrictionItem(RestrictionDefinition rd, Object value, boolean exists) {
         super();
         this.rd = rd;
-        this.value = value;
         this.exists = exists;
+
+        // convert to the string form once instead of on each read
+        RestrictionValues rv;
+        RepositoryException failure = null;
+        try {
+            rv = RestrictionValues.of(value);
+        } catch (RepositoryException e) {
+            // report it when the value is read
+            rv = RestrictionValues.EMPTY;
+            failure = e;
+        }
+        this.values = rv;
+        this.conversionFailure = failure;
     }
 
     public String getName() {
@@ -48,42 +58,22 @@ public class RestrictionItem {
     }
 
     public String getValue() throws RepositoryException {
-        String v = null;
-        if (value instanceof Value valueObj) {
-            v = valueObj.getString();
-        } else if (value instanceof Value[] va) {
-            if (va.length > 0) {
-                v = va[0].getString();
-            }
-        } else if (value instanceof String valueString) {
-            v = valueString;
-        } else if (value instanceof String[] values && values.length > 0) {
-            v = values[0];
-        }
-
-        if (v == null) {
-            // empty string if no values yet
-            v = "";
-        }
-        return v;
+        return getRestrictionValues().getFirst();
     }
 
     public List<String> getValues() throws RepositoryException {
-        List<String> values = new ArrayList<>();
-        if (value instanceof Value valueObj) {
-            values.add(valueObj.getString());
-        } else if (value instanceof Value[] va) {
-            for (Value v : va) {
-                values.add(v.getString());
-            }
-        } else if (value instanceof String stringValue) {
-            values.add(stringValue);
-        } else if (value instanceof String[] stringValues) {
-            values.addAll(Arrays.asList(stringValues));
-        }
-        if (values.isEmpty()) {
-            // empty string if no values yet
-            values.add("");
+        return getRestrictionValues().getList();
+    }
+
+    /**
+     * Returns the string form of the restriction values
+     *
+     * @return the restriction values
+     * @throws RepositoryException if the original value could not be converted
+     */
+    public RestrictionValues getRestrictionValues() throws RepositoryException {
+        if (conversionFailure != null) {
+            throw conversionFailure;
         }
         return values;
     }
@@ -106,11 +96,7 @@ public class RestrictionItem {
         builder.append("RestrictionItem [name=");
         builder.append(rd.getName());
         builder.append(", value=");
-        try {
-            builder.append(getValues());
-        } catch (RepositoryException e) {
-            // ignore
-        }
+        builder.append(values);
         builder.append(", exists=");
         builder.append(exists);
         builder.append("]");
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.models;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable string form of a restriction value that is converted
+ * once when it is created instead of each time it is read
+ */
+public final class RestrictionValues {
+    private static final String[] NO_VALUES = new String[0];
+
+    /**
+     * Values to render when nothing has been declared yet
+     */
+    private static final List<String> EMPTY_VALUE_LIST = Collections.singletonList("");
+
+    /**
+     * The restriction values with no values
+     */
+    public static final RestrictionValues EMPTY = new RestrictionValues(NO_VALUES);
+
+    private final String[] values;
+    private final List<String> valueList;
+
+    private RestrictionValues(@NotNull String[] values) {
+        this.values = values;
+        this.valueList = values.length == 0 ? EMPTY_VALUE_LIST : Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    /**
+     * Convert the supplied value to the string form
+     *
+     * @param value the value which may be a String, String[], Value or Value[]
+     * @return the converted values
+     * @throws RepositoryException if a JCR value could not be converted to a string
+     */
+    public static @NotNull RestrictionValues of(@Nullable Object value) throws RepositoryException {
+        RestrictionValues rv;
+        if (value instanceof RestrictionValues restrictionValues) {
+            rv = restrictionValues;
+        } else if (value instanceof Value valueObj) {
+            rv = new RestrictionValues(new String[] {valueObj.getString()});
+        } else if (value instanceof Value[] va) {
+            String[] strings = new String[va.length];
+            for (int i = 0; i < va.length; i++) {
+                strings[i] = va[i].getString();
+            }
+            rv = ofStrings(strings);
+        } else if (value instanceof String valueString) {
+            rv = new RestrictionValues(new String[] {valueString});
+        } else if (value instanceof String[] valueStrings) {
+            rv = ofStrings(valueStrings.clone());
+        } else {
+            rv = EMPTY;
+        }
+        return rv;
+    }
+
+    /**
+     * Wrap the supplied strings without copying them
+     *
+     * @param values the values, which must not be changed by the caller afterwards
+     * @return the restriction values
+     */
+    static @NotNull RestrictionValues ofStrings(@Nullable String[] values) {
+        if (values == null || values.length == 0) {
+            return EMPTY;
+        }
+        return new RestrictionValues(values);
+    }
+
+    /**
+     * @return the first value or an empty string if there are no values yet
+     */
+    public @NotNull String getFirst() {
+        return values.length == 0 || values[0] == null ? "" : values[0];
+    }
+
+    /**
+     * @return unmodifiable list of the values, or a single empty string if there are no values yet
+     */
+    public @NotNull List<String> getList() {
+        return valueList;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return valueList.toString();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets;
+
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Maps the plain names of the static assets under /content/starter, for example
+ * <code>css/bundle.css</code>, to the content hashed names generated by the
+ * frontend build, for example <code>css/bundle.0123456789.css</code>.
+ */
+@ProviderType
+public interface AssetManifest {
+
+    /**
+     * Returns the content hashed path of the asset
+     *
+     * @param name the plain path of the asset relative to /content/starter
+     * @return the hashed path relative to /content/starter, or the supplied name if
+     *          there is no hashed variant of the asset
+     */
+    @NotNull
+    String getPath(@NotNull String name);
+
+    /**
+     * Checks whether the path is one of the content hashed paths, which can
+     * be cached forever since the content changes whenever the name does.
+     *
+     * @param path the path of the asset relative to /content/starter
+     * @return true if the path is a content hashed path
+     */
+    boolean isHashed(@NotNull String path);
+
+    /**
+     * Returns all the plain asset names mapped to the content hashed path
+     *
+     * @return unmodifiable map of the plain names to the hashed paths
+     */
+    @NotNull
+    Map<String, String> getPaths();
+
+    /**
+     * Returns the rules of the stylesheet that the page needs for the first paint,
+     * to be inlined in the page while the full stylesheet loads asynchronously.
+     *
+     * @param template the name of the page, one of home, login, acl or ace
+     * @param starterUrl the URL of /content/starter that the url() references are resolved against
+     * @return the critical CSS or an empty string if there is none for the page
+     */
+    @NotNull
+    String getCriticalCss(@NotNull String template, @NotNull String starterUrl);
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import org.apache.sling.starter.assets.AssetManifest;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the asset manifest that the frontend build generates
+ * into the bundle.
+ */
+@Component(service = AssetManifest.class)
+public class AssetManifestImpl implements AssetManifest {
+    /**
+     * The location of the manifest in the bundle
+     */
+    static final String MANIFEST_PATH = "META-INF/assets-manifest.json";
+
+    /**
+     * The location of the critical CSS of each page in the bundle
+     */
+    static final String CRITICAL_CSS_PATH = "META-INF/critical-css.json";
+
+    /**
+     * Placeholder for the URL of /content/starter in the url() references of the critical CSS
+     */
+    static final String STARTER_URL_PLACEHOLDER = "{starter}";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Map<String, String> paths;
+    private final Set<String> hashedPaths;
+    private final Map<String, String> criticalCss;
+
+    public AssetManifestImpl() {
+        this(null, null);
+    }
+
+    AssetManifestImpl(Map<String, String> paths, Map<String, String> criticalCss) {
+        if (paths == null) {
+            paths = load(MANIFEST_PATH, "the static assets will be served under the plain names");
+        }
+        if (criticalCss == null) {
+            criticalCss = load(CRITICAL_CSS_PATH, "the pages will render once the stylesheet is loaded");
+        }
+        this.paths = Collections.unmodifiableMap(new LinkedHashMap<>(paths));
+        this.hashedPaths = Set.copyOf(paths.values());
+        this.criticalCss = Map.copyOf(criticalCss);
+    }
+
+    private Map<String, String> load(String path, String consequence) {
+        Map<String, String> map = Collections.emptyMap();
+        URL url = getClass().getClassLoader().getResource(path);
+        if (url == null) {
+            logger.warn("No {} found, {}", path, consequence);
+        } else {
+            try (InputStream in = url.openStream()) {
+                map = parse(in);
+            } catch (IOException | JsonException e) {
+                logger.error("Failed to read {}", path, e);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Parse the manifest content
+     *
+     * @param in the JSON object of string values
+     * @return the parsed mapping
+     */
+    static @NotNull Map<String, String> parse(@NotNull InputStream in) {
+        Map<String, String> map = new LinkedHashMap<>();
+        try (JsonReader reader = Json.createReader(in)) {
+            JsonObject obj = reader.readObject();
+            for (Entry<String, JsonValue> entry : obj.entrySet()) {
+                if (entry.getValue() instanceof JsonString hashed) {
+                    map.put(entry.getKey(), hashed.getString());
+                }
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public @NotNull String getPath(@NotNull String name) {
+        return paths.getOrDefault(name, name);
+    }
+
+    @Override
+    public boolean isHashed(@NotNull String path) {
+        return hashedPaths.contains(path);
+    }
+
+    @Override
+    public @NotNull Map<String, String> getPaths() {
+        return paths;
+    }
+
+    @Override
+    public @NotNull String getCriticalCss(@NotNull String template, @NotNull String starterUrl) {
+        String css = criticalCss.get(template);
+        if (css == null) {
+            return "";
+        }
+        return css.replace(STARTER_URL_PLACEHOLDER, starterUrl);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets.impl;
+
+import java.io.IOException;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.starter.assets.AssetManifest;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Marks the content hashed static assets as cacheable forever, since
+ * a changed asset is always served under a new name.
+ */
+@Component(
+        service = Filter.class,
+        property = {"sling.filter.scope=REQUEST", "sling.filter.resource.pattern=/content/starter/.*"})
+public class ImmutableAssetFilter implements Filter {
+    static final String STARTER_PATH = "/content/starter/";
+    static final String CACHE_CONTROL_IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final AssetManifest manifest;
+
+    @Activate
+    public ImmutableAssetFilter(@Reference AssetManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request instanceof SlingJakartaHttpServletRequest slingRequest
+                && response instanceof HttpServletResponse httpResponse
+                && isHashedAsset(slingRequest.getResource())) {
+            httpResponse.setHeader("Cache-Control", CACHE_CONTROL_IMMUTABLE);
+        }
+        chain.doFilter(request, response);
+    }
+
+    boolean isHashedAsset(Resource resource) {
+        if (resource == null) {
+            return false;
+        }
+        String path = resource.getPath();
+        return path.startsWith(STARTER_PATH) && manifest.isHashed(path.substring(STARTER_PATH.length()));
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.request.RequestPathInfo;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceMetadata;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Serves the gzip or brotli variant that the frontend build generated next
+ * to a static asset when the client accepts it, so nothing is compressed
+ * at runtime. Runs after {@link ImmutableAssetFilter} so the caching headers
+ * are still applied.
+ */
+@Component(
+        service = Filter.class,
+        property = {
+            "sling.filter.scope=REQUEST",
+            "sling.filter.resource.pattern=/content/starter/.*",
+            "service.ranking:Integer=-100"
+        })
+public class PrecompressedAssetFilter implements Filter {
+    static final String STARTER_PATH = "/content/starter/";
+
+    /**
+     * The supported content codings mapped to the extension of the variant, in
+     * order of preference when the client accepts them equally
+     */
+    static final Map<String, String> CODINGS = new LinkedHashMap<>();
+
+    static {
+        CODINGS.put("br", ".br");
+        CODINGS.put("gzip", ".gz");
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request instanceof SlingJakartaHttpServletRequest slingRequest
+                && response instanceof HttpServletResponse httpResponse
+                && serveVariant(slingRequest, httpResponse)) {
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Serve the precompressed variant of the requested asset if there is one that
+     * the client accepts.
+     *
+     * @return true if the response was handled, false to continue with the default processing
+     */
+    boolean serveVariant(SlingJakartaHttpServletRequest request, HttpServletResponse response) throws IOException {
+        String method = request.getMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method) || request.getHeader("Range") != null) {
+            return false;
+        }
+        Resource resource = request.getResource();
+        if (resource == null || !resource.getPath().startsWith(STARTER_PATH)) {
+            return false;
+        }
+        RequestPathInfo pathInfo = request.getRequestPathInfo();
+        if (pathInfo.getSelectorString() != null || pathInfo.getSuffix() != null) {
+            return false;
+        }
+
+        Map<String, Resource> variants = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : CODINGS.entrySet()) {
+            Resource variant = resource.getResourceResolver().getResource(resource.getPath() + entry.getValue());
+            if (variant != null) {
+                variants.put(entry.getKey(), variant);
+            }
+        }
+        if (variants.isEmpty()) {
+            return false;
+        }
+        // the response differs by the request header from here on, whichever variant is sent
+        response.addHeader("Vary", "Accept-Encoding");
+
+        String coding = selectCoding(request.getHeader("Accept-Encoding"), variants.keySet());
+        ResourceMetadata metadata = resource.getResourceMetadata();
+        String contentType = metadata.getContentType();
+        if (coding == null || contentType == null) {
+            return false;
+        }
+
+        long lastModified = metadata.getModificationTime();
+        if (lastModified > 0) {
+            long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            if (ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+        }
+
+        Resource variant = variants.get(coding);
+        try (InputStream in = head ? null : variant.adaptTo(InputStream.class)) {
+            if (!head && in == null) {
+                return false;
+            }
+            response.setContentType(contentType);
+            if (metadata.getCharacterEncoding() != null) {
+                response.setCharacterEncoding(metadata.getCharacterEncoding());
+            }
+            response.setHeader("Content-Encoding", coding);
+            if (lastModified > 0) {
+                response.setDateHeader("Last-Modified", lastModified);
+            }
+            long length = variant.getResourceMetadata().getContentLength();
+            if (length > 0) {
+                response.setContentLengthLong(length);
+            }
+            if (in != null) {
+                in.transferTo(response.getOutputStream());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Select the content coding to send according to the q-values of the
+     * Accept-Encoding header.
+     *
+     * @param acceptEncoding the value of the Accept-Encoding request header
+     * @param available the codings that have a variant
+     * @return the coding to send or null to send the plain asset
+     */
+    static String selectCoding(String acceptEncoding, Set<String> available) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Map<String, Float> qualities = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if ("x-gzip".equals(coding)) {
+                coding = "gzip";
+            }
+            float q = 1f;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Float.parseFloat(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // not acceptable if it can't be understood
+                        q = 0f;
+                    }
+                }
+            }
+            if (!coding.isEmpty()) {
+                qualities.merge(coding, q, Math::max);
+            }
+        }
+
+        String selected = null;
+        float selectedQ = 0f;
+        for (String coding : CODINGS.keySet()) {
+            if (available.contains(coding)) {
+                float q = qualities.getOrDefault(coding, qualities.getOrDefault("*", 0f));
+                if (q > selectedQ) {
+                    selected = coding;
+                    selectedQ = q;
+                }
+            }
+        }
+        return selected;
+    }
+}
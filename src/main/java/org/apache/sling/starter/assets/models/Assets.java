@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets.models;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.annotations.injectorspecific.OSGiService;
+import org.apache.sling.models.annotations.injectorspecific.SlingObject;
+import org.apache.sling.starter.assets.AssetManifest;
+
+/**
+ * Model to resolve the URLs of the static starter assets, for example
+ * <code>${assets.paths['css/bundle.css']}</code>, to the content hashed
+ * variants that browsers can cache forever.
+ */
+@Model(adaptables = SlingJakartaHttpServletRequest.class)
+public class Assets {
+    /**
+     * The mapped path of /content/starter
+     */
+    protected static final String STARTER_URL = "/starter";
+
+    @SlingObject
+    protected SlingJakartaHttpServletRequest request;
+
+    @OSGiService
+    protected AssetManifest manifest;
+
+    /**
+     * Returns the URL of the asset
+     *
+     * @param name the plain path of the asset relative to /content/starter
+     * @return the URL of the content hashed variant of the asset, or of the plain asset
+     *          if there is no hashed variant
+     */
+    public String getUrl(String name) {
+        return request.getContextPath() + STARTER_URL + "/" + manifest.getPath(name);
+    }
+
+    /**
+     * Returns a map that resolves the plain asset names to the URLs of the assets
+     * for use in scripts.
+     *
+     * @return map of the plain names to the URLs
+     */
+    public Map<String, String> getPaths() {
+        return new LookupMap() {
+            @Override
+            public String get(Object key) {
+                return key instanceof String name ? getUrl(name) : null;
+            }
+
+            @Override
+            public Set<Entry<String, String>> entrySet() {
+                Map<String, String> urls = new LinkedHashMap<>();
+                for (String name : manifest.getPaths().keySet()) {
+                    urls.put(name, getUrl(name));
+                }
+                return urls.entrySet();
+            }
+        };
+    }
+
+    /**
+     * Returns a map that resolves the page names, for example
+     * <code>${assets.criticalCss['login']}</code>, to the critical CSS
+     * of the page.
+     *
+     * @return map of the page names to the critical CSS
+     */
+    public Map<String, String> getCriticalCss() {
+        return new LookupMap() {
+            @Override
+            public String get(Object key) {
+                return key instanceof String template
+                        ? manifest.getCriticalCss(template, request.getContextPath() + STARTER_URL)
+                        : null;
+            }
+        };
+    }
+
+    /**
+     * Base for the maps that compute the value on lookup
+     */
+    private abstract static class LookupMap extends AbstractMap<String, String> {
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return Collections.emptySet();
+        }
+    }
+}
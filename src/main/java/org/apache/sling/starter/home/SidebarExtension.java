@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ConsumerType;
+
+/**
+ * Whiteboard service that contributes an item to the sidebar of the starter
+ * home page. The items are ordered by the <code>service.ranking</code> of the
+ * services, highest first, and are rendered before the content below
+ * /content/starter/sidebar-extensions.
+ */
+@ConsumerType
+public interface SidebarExtension {
+
+    /**
+     * Returns the name of the extension, which must be unique as it identifies
+     * the extension when it is loaded lazily.
+     *
+     * @return the name of the extension
+     */
+    @NotNull
+    String getName();
+
+    /**
+     * Checks whether the extension is rendered after the page has loaded instead
+     * of with the page. Slow extensions should be lazy so they do not delay the
+     * home page.
+     *
+     * @return true to render the extension after the page has loaded
+     */
+    default boolean isLazy() {
+        return false;
+    }
+
+    /**
+     * Writes the HTML of the extension
+     *
+     * @param request the current request
+     * @param out the writer to write the HTML to
+     * @throws IOException if writing fails
+     */
+    void render(@NotNull SlingJakartaHttpServletRequest request, @NotNull Writer out) throws IOException;
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home;
+
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Tracks the {@link SidebarExtension} services in the order they are rendered
+ */
+@ProviderType
+public interface SidebarExtensionRegistry {
+
+    /**
+     * @return the extensions in the order they are rendered
+     */
+    @NotNull
+    List<SidebarExtension> getExtensions();
+
+    /**
+     * Returns the extension with the name
+     *
+     * @param name the name of the extension
+     * @return the extension or null if there is none with the name
+     */
+    @Nullable
+    SidebarExtension getExtension(@NotNull String name);
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Keeps the rendered HTML of each resource below
+ * /content/starter/sidebar-extensions, so the home page does not render
+ * every extension on every view. The service is only available when it is
+ * configured.
+ */
+@ProviderType
+public interface SidebarFragmentCache {
+
+    /**
+     * Returns the rendered HTML of the extension, rendering it only if there
+     * is no current copy
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param extension the extension resource to render
+     * @return the rendered HTML or an empty string if rendering failed
+     */
+    @NotNull
+    String getFragment(
+            @NotNull SlingJakartaHttpServletRequest request,
+            @NotNull HttpServletResponse response,
+            @NotNull Resource extension);
+}
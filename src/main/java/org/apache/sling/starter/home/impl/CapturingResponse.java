@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response wrapper that buffers the body, the status and the headers so they
+ * can be stored, and tracks whether the response is a plain 200 response that
+ * is fine to store. Cookies are passed on and make the response not storable.
+ */
+class CapturingResponse extends HttpServletResponseWrapper {
+    private static final String SET_COOKIE = "Set-Cookie";
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private boolean cookies = false;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private int status = SC_OK;
+    private boolean passedThrough = false;
+    private String contentType;
+    private String characterEncoding;
+
+    CapturingResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    buffer.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    buffer.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    // blocking only
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void setContentType(String type) {
+        contentType = type;
+        super.setContentType(type);
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType != null ? contentType : super.getContentType();
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        characterEncoding = charset;
+        super.setCharacterEncoding(charset);
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding != null ? characterEncoding : super.getCharacterEncoding();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            if (encoding == null) {
+                encoding = StandardCharsets.UTF_8.name();
+                setCharacterEncoding(encoding);
+            }
+            writer = new PrintWriter(new OutputStreamWriter(buffer, encoding));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        // keep buffering, the body is written out once complete
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (value == null) {
+            headers.remove(name);
+        } else {
+            List<String> values = new ArrayList<>(1);
+            values.add(value);
+            headers.put(name, values);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (value != null) {
+            headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, formatDate(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, formatDate(date));
+    }
+
+    private static String formatDate(long date) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(date), ZoneOffset.UTC));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name) || super.containsHeader(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? super.getHeader(name) : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? super.getHeaders(name) : List.copyOf(values);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        Set<String> names = new LinkedHashSet<>(super.getHeaderNames());
+        names.addAll(headers.keySet());
+        return names;
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        // the cookie is for this client only
+        cookies = true;
+        super.addCookie(cookie);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discardBody();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = null;
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        discardBody();
+    }
+
+    private void discardBody() {
+        if (writer != null) {
+            // drop the characters the writer still holds along with the buffered bytes
+            writer.flush();
+        }
+        buffer.reset();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        status = sc;
+        passedThrough = true;
+        setHeaders((HttpServletResponse) getResponse(), headers);
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        status = sc;
+        passedThrough = true;
+        setHeaders((HttpServletResponse) getResponse(), headers);
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        status = SC_FOUND;
+        passedThrough = true;
+        setHeaders((HttpServletResponse) getResponse(), headers);
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // computed from the buffered body
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        // computed from the buffered body
+    }
+
+    /**
+     * @return true if the response is a plain 200 response with a body
+     */
+    boolean isCacheable() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return !passedThrough && status == SC_OK && buffer.size() > 0 && !cookies && !headers.containsKey(SET_COOKIE);
+    }
+
+    /**
+     * @return the captured headers, by their name ignoring case
+     */
+    Map<String, List<String>> getCapturedHeaders() {
+        return headers;
+    }
+
+    /**
+     * Set captured headers on a response
+     *
+     * @param response the response to set them on
+     * @param headers the headers
+     */
+    static void setHeaders(HttpServletResponse response, Map<String, List<String>> headers) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            boolean first = true;
+            for (String value : header.getValue()) {
+                if (first) {
+                    response.setHeader(header.getKey(), value);
+                    first = false;
+                } else {
+                    response.addHeader(header.getKey(), value);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the response has been committed without the buffer
+     */
+    boolean isPassedThrough() {
+        return passedThrough;
+    }
+
+    /**
+     * @return the captured body
+     */
+    byte[] getBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return buffer.toByteArray();
+    }
+}
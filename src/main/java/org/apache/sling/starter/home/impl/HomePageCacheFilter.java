@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.request.RequestPathInfo;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.apache.sling.starter.home.SidebarExtension;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+/**
+ * Renders the starter home page once and serves the stored copy with an
+ * ETag to all later requests, so the page script is not evaluated on each
+ * hit. The stored copy is dropped whenever the content or the scripts of the
+ * home page change.
+ *
+ * The component is only active when a configuration exists, as it assumes
+ * the home page looks the same for every user. The session dependent part
+ * of the page is filled in by the browser.
+ */
+@Component(
+        service = {Filter.class, ResourceChangeListener.class},
+        configurationPolicy = ConfigurationPolicy.REQUIRE,
+        property = {
+            "sling.filter.scope=REQUEST",
+            "sling.filter.resourceTypes=" + HomePageCacheFilter.HOME_RESOURCE_TYPE,
+            "sling.filter.extensions=html",
+            "sling.filter.methods=GET",
+            ResourceChangeListener.PATHS + "=/content/starter",
+            ResourceChangeListener.PATHS + "=/apps/sling/starter"
+        })
+@Designate(ocd = HomePageCacheFilter.Config.class)
+public class HomePageCacheFilter implements Filter, ResourceChangeListener {
+    static final String HOME_RESOURCE_TYPE = "sling/starter/home";
+
+    /**
+     * The selectors of the login page variant that reads the request parameters
+     * in the browser. It is only stored for the requests without a query, like
+     * the home page, so a change of the page that reads the query on the server
+     * cannot spread one request's rendering to the others.
+     */
+    static final String STATIC_LOGIN_SELECTORS = "login.static";
+
+    @ObjectClassDefinition(
+            name = "Apache Sling Starter Home Page Cache",
+            description = "Serves a stored, ETag validated copy of the starter home page")
+    public @interface Config {
+        @AttributeDefinition(
+                name = "Invalidation Paths",
+                description = "Changes below these paths drop the stored copy of the home page")
+        String[] resource_paths() default {"/content/starter", "/apps/sling/starter"};
+    }
+
+    /**
+     * A stored rendering of a page
+     */
+    record CachedPage(
+            int status,
+            Map<String, List<String>> headers,
+            byte[] body,
+            String contentType,
+            String characterEncoding,
+            String etag) {}
+
+    /**
+     * The headers that are set for each request when sending a stored page
+     */
+    private static final Set<String> OWN_HEADERS = Set.of("etag", "cache-control", "content-length");
+
+    private final Map<String, CachedPage> cache = new ConcurrentHashMap<>();
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof SlingJakartaHttpServletRequest slingRequest)
+                || !(response instanceof HttpServletResponse httpResponse)
+                || !isCacheableRequest(slingRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String selectors = slingRequest.getRequestPathInfo().getSelectorString();
+        String key = slingRequest.getResource().getPath() + (selectors == null ? "" : "." + selectors);
+        CachedPage page = cache.get(key);
+        if (page == null) {
+            CapturingResponse capture = new CapturingResponse(httpResponse);
+            chain.doFilter(request, capture);
+            if (capture.isPassedThrough()) {
+                return;
+            }
+            byte[] body = capture.getBody();
+            if (!capture.isCacheable()) {
+                httpResponse.setStatus(capture.getStatus());
+                CapturingResponse.setHeaders(httpResponse, capture.getCapturedHeaders());
+                httpResponse.getOutputStream().write(body);
+                return;
+            }
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            capture.getCapturedHeaders().forEach((name, values) -> {
+                if (!OWN_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            page = new CachedPage(
+                    capture.getStatus(),
+                    Collections.unmodifiableMap(headers),
+                    body,
+                    capture.getContentType(),
+                    capture.getCharacterEncoding(),
+                    etag(body));
+            cache.put(key, page);
+        }
+        send(slingRequest, httpResponse, page);
+    }
+
+    private void send(SlingJakartaHttpServletRequest request, HttpServletResponse response, CachedPage page)
+            throws IOException {
+        response.setStatus(page.status());
+        CapturingResponse.setHeaders(response, page.headers());
+        response.setHeader("ETag", page.etag());
+        // the browser may keep it, but has to check that it is still current
+        response.setHeader("Cache-Control", "no-cache");
+        if (matches(request.getHeader("If-None-Match"), page.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (page.contentType() != null) {
+            response.setContentType(page.contentType());
+        }
+        if (page.characterEncoding() != null) {
+            response.setCharacterEncoding(page.characterEncoding());
+        }
+        response.setContentLength(page.body().length);
+        response.getOutputStream().write(page.body());
+    }
+
+    /**
+     * Only the plain GET of a home page resource and of the static login page
+     * are stored, anything else with selectors, a suffix or a query may render
+     * differently.
+     */
+    boolean isCacheableRequest(SlingJakartaHttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return false;
+        }
+        Resource resource = request.getResource();
+        if (resource == null || !resource.isResourceType(HOME_RESOURCE_TYPE)) {
+            return false;
+        }
+        RequestPathInfo pathInfo = request.getRequestPathInfo();
+        if (!"html".equals(pathInfo.getExtension()) || pathInfo.getSuffix() != null) {
+            return false;
+        }
+        String selectors = pathInfo.getSelectorString();
+        return (selectors == null || STATIC_LOGIN_SELECTORS.equals(selectors)) && request.getQueryString() == null;
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                // weak comparison is fine for a GET
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void onChange(@NotNull List<ResourceChange> changes) {
+        cache.clear();
+    }
+
+    /**
+     * The eager sidebar extensions are part of the stored copy, so it is dropped
+     * whenever one comes or goes
+     */
+    @Reference(
+            service = SidebarExtension.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            policyOption = ReferencePolicyOption.GREEDY)
+    protected void bindSidebarExtension(SidebarExtension extension) {
+        cache.clear();
+    }
+
+    protected void unbindSidebarExtension(SidebarExtension extension) {
+        cache.clear();
+    }
+
+    int size() {
+        return cache.size();
+    }
+}
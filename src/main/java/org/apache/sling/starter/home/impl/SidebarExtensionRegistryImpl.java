@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.sling.starter.home.SidebarExtension;
+import org.apache.sling.starter.home.SidebarExtensionRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+
+/**
+ * Tracks the {@link SidebarExtension} services, ordered by their ranking
+ */
+@Component(service = SidebarExtensionRegistry.class)
+public class SidebarExtensionRegistryImpl implements SidebarExtensionRegistry {
+
+    /**
+     * Sort key of a registered extension, highest ranking first and then
+     * in registration order
+     */
+    record Key(int ranking, long serviceId) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER =
+                Comparator.comparingInt(Key::ranking).reversed().thenComparingLong(Key::serviceId);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private final Map<Key, SidebarExtension> extensions = new ConcurrentSkipListMap<>();
+
+    @Reference(
+            service = SidebarExtension.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            policyOption = ReferencePolicyOption.GREEDY)
+    protected void bindSidebarExtension(SidebarExtension extension, Map<String, Object> properties) {
+        extensions.put(toKey(properties), extension);
+    }
+
+    protected void unbindSidebarExtension(SidebarExtension extension, Map<String, Object> properties) {
+        extensions.remove(toKey(properties));
+    }
+
+    static Key toKey(Map<String, Object> properties) {
+        Object ranking = properties.get("service.ranking");
+        Object serviceId = properties.get("service.id");
+        return new Key(
+                ranking instanceof Integer r ? r : 0, serviceId instanceof Number id ? id.longValue() : Long.MAX_VALUE);
+    }
+
+    @Override
+    public @NotNull List<SidebarExtension> getExtensions() {
+        return new ArrayList<>(extensions.values());
+    }
+
+    @Override
+    public @Nullable SidebarExtension getExtension(@NotNull String name) {
+        for (SidebarExtension extension : extensions.values()) {
+            if (name.equals(extension.getName())) {
+                return extension;
+            }
+        }
+        return null;
+    }
+}
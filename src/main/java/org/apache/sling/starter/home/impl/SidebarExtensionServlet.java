@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.io.IOException;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.servlets.ServletResolverConstants;
+import org.apache.sling.api.servlets.SlingJakartaSafeMethodsServlet;
+import org.apache.sling.starter.home.SidebarExtension;
+import org.apache.sling.starter.home.SidebarExtensionRegistry;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Renders a single sidebar extension, which the home page uses to load
+ * the lazy extensions after the page itself has loaded.
+ */
+@Component(
+        service = Servlet.class,
+        property = {
+            ServletResolverConstants.SLING_SERVLET_RESOURCE_TYPES + "=sling/starter/home",
+            ServletResolverConstants.SLING_SERVLET_SELECTORS + "=" + SidebarExtensionServlet.SELECTOR,
+            ServletResolverConstants.SLING_SERVLET_EXTENSIONS + "=html",
+            ServletResolverConstants.SLING_SERVLET_METHODS + "=GET"
+        })
+public class SidebarExtensionServlet extends SlingJakartaSafeMethodsServlet {
+    private static final long serialVersionUID = 1L;
+
+    static final String SELECTOR = "sidebar";
+
+    /**
+     * The request parameter with the name of the extension
+     */
+    static final String PARAM_NAME = "name";
+
+    private final transient SidebarExtensionRegistry registry;
+
+    @Activate
+    public SidebarExtensionServlet(@Reference SidebarExtensionRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doGet(SlingJakartaHttpServletRequest request, SlingJakartaHttpServletResponse response)
+            throws IOException {
+        String name = request.getParameter(PARAM_NAME);
+        SidebarExtension extension = name == null ? null : registry.getExtension(name);
+        if (extension == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType("text/html");
+        response.setCharacterEncoding("UTF-8");
+        extension.render(request, response.getWriter());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.apache.sling.starter.home.SidebarFragmentCache;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the rendered HTML of each sidebar extension, keyed by the path and
+ * last modified time of the extension resource.
+ *
+ * The component is only active when a configuration exists, as the HTML
+ * rendered for the first request is served to every user. Without it the
+ * extensions are rendered for each request.
+ */
+@Component(
+        service = {SidebarFragmentCache.class, ResourceChangeListener.class},
+        configurationPolicy = ConfigurationPolicy.REQUIRE,
+        property = {ResourceChangeListener.PATHS + "=" + SidebarFragmentCacheImpl.SIDEBAR_EXTENSIONS_PATH})
+public class SidebarFragmentCacheImpl implements SidebarFragmentCache, ResourceChangeListener {
+    static final String SIDEBAR_EXTENSIONS_PATH = "/content/starter/sidebar-extensions";
+
+    /**
+     * A rendered extension
+     */
+    record Fragment(long lastModified, String html) {}
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+
+    @Override
+    public @NotNull String getFragment(
+            @NotNull SlingJakartaHttpServletRequest request,
+            @NotNull HttpServletResponse response,
+            @NotNull Resource extension) {
+        long lastModified = getLastModified(extension);
+        Fragment fragment = fragments.get(extension.getPath());
+        if (fragment == null || fragment.lastModified() != lastModified) {
+            try {
+                fragment = new Fragment(lastModified, render(request, response, extension));
+                fragments.put(extension.getPath(), fragment);
+            } catch (IOException | ServletException e) {
+                logger.error("Failed to render the sidebar extension {}", extension.getPath(), e);
+                return "";
+            }
+        }
+        return fragment.html();
+    }
+
+    private String render(SlingJakartaHttpServletRequest request, HttpServletResponse response, Resource extension)
+            throws IOException, ServletException {
+        RequestDispatcher dispatcher = request.getRequestDispatcher(extension);
+        if (dispatcher == null) {
+            return "";
+        }
+        CapturingResponse capture = new CapturingResponse(response);
+        dispatcher.include(request, capture);
+        String encoding = capture.getCharacterEncoding();
+        Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+        return new String(capture.getBody(), charset);
+    }
+
+    static long getLastModified(Resource resource) {
+        ValueMap properties = resource.getValueMap();
+        Calendar lastModified = properties.get("jcr:lastModified", Calendar.class);
+        if (lastModified == null) {
+            lastModified = properties.get("jcr:created", Calendar.class);
+        }
+        return lastModified == null
+                ? resource.getResourceMetadata().getModificationTime()
+                : lastModified.getTimeInMillis();
+    }
+
+    @Override
+    public void onChange(@NotNull List<ResourceChange> changes) {
+        for (ResourceChange change : changes) {
+            String path = change.getPath();
+            // drop the changed extension, or every extension below a changed ancestor
+            fragments
+                    .keySet()
+                    .removeIf(key -> key.equals(path) || path.startsWith(key + "/") || key.startsWith(path + "/"));
+        }
+    }
+
+    int size() {
+        return fragments.size();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.models;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.annotations.injectorspecific.OSGiService;
+import org.apache.sling.models.annotations.injectorspecific.SlingObject;
+import org.apache.sling.starter.home.SidebarExtension;
+import org.apache.sling.starter.home.SidebarExtensionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Model to assist rendering the starter home page
+ */
+@Model(adaptables = SlingJakartaHttpServletRequest.class)
+public class Home {
+    /**
+     * The location of the additional content rendered in the sidebar
+     */
+    public static final String SIDEBAR_EXTENSIONS_PATH = "/content/starter/sidebar-extensions";
+
+    private static final Logger logger = LoggerFactory.getLogger(Home.class);
+
+    @SlingObject
+    protected SlingJakartaHttpServletRequest request;
+
+    @OSGiService
+    SidebarExtensionRegistry sidebarExtensionRegistry;
+
+    public String getLoginUrl() {
+        return request.getContextPath() + "/system/sling/login.html";
+    }
+
+    public String getLogoutUrl() {
+        return request.getContextPath() + "/system/sling/logout";
+    }
+
+    /**
+     * Returns the URL of the JSON description of the current session, which
+     * the page uses to show the login or logout link
+     *
+     * @return the session info URL
+     */
+    public String getSessionInfoUrl() {
+        return request.getContextPath() + "/system/sling/info.sessionInfo.json";
+    }
+
+    public String getSidebarExtensionsPath() {
+        return SIDEBAR_EXTENSIONS_PATH;
+    }
+
+    /**
+     * Checks whether there is any sidebar content to render
+     *
+     * @return true if the sidebar extensions resource exists
+     */
+    public boolean isHasSidebarExtensions() {
+        return request.getResourceResolver().getResource(SIDEBAR_EXTENSIONS_PATH) != null;
+    }
+
+    /**
+     * Returns the sidebar items contributed by {@link SidebarExtension} services
+     *
+     * @return the items in the order they are rendered
+     */
+    public List<SidebarItem> getSidebarItems() {
+        List<SidebarItem> items = new ArrayList<>();
+        for (SidebarExtension extension : sidebarExtensionRegistry.getExtensions()) {
+            items.add(new SidebarItem(extension));
+        }
+        return items;
+    }
+
+    /**
+     * A sidebar item contributed by a {@link SidebarExtension} service
+     */
+    public final class SidebarItem {
+        private final SidebarExtension extension;
+
+        SidebarItem(SidebarExtension extension) {
+            this.extension = extension;
+        }
+
+        public String getName() {
+            return extension.getName();
+        }
+
+        public boolean isLazy() {
+            return extension.isLazy();
+        }
+
+        /**
+         * Returns the URL the page loads a lazy item from
+         *
+         * @return the URL of the rendered item
+         */
+        public String getUrl() {
+            return request.getContextPath()
+                    + request.getResource().getPath()
+                    + ".sidebar.html?name="
+                    + URLEncoder.encode(extension.getName(), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Renders the item, a failing extension is logged and left out of the page
+         *
+         * @return the HTML of the item
+         */
+        public String getHtml() {
+            StringWriter html = new StringWriter();
+            try {
+                extension.render(request, html);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to render sidebar extension {}", extension.getName(), e);
+                return "";
+            }
+            return html.toString();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.models;
+
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.annotations.injectorspecific.InjectionStrategy;
+import org.apache.sling.models.annotations.injectorspecific.OSGiService;
+import org.apache.sling.models.annotations.injectorspecific.ScriptVariable;
+import org.apache.sling.models.annotations.injectorspecific.SlingObject;
+import org.apache.sling.starter.home.SidebarFragmentCache;
+
+/**
+ * Model to render the children of the sidebar extensions resource from the
+ * cached fragments, when the fragment cache is configured
+ */
+@Model(adaptables = SlingJakartaHttpServletRequest.class)
+public class SidebarExtensions {
+
+    @SlingObject
+    protected SlingJakartaHttpServletRequest request;
+
+    @SlingObject
+    protected SlingJakartaHttpServletResponse response;
+
+    @ScriptVariable
+    protected Resource resource;
+
+    @OSGiService(injectionStrategy = InjectionStrategy.OPTIONAL)
+    SidebarFragmentCache fragmentCache;
+
+    /**
+     * Checks whether the extensions are rendered from the fragment cache
+     *
+     * @return true if the fragment cache is configured, false to render the extensions directly
+     */
+    public boolean isCached() {
+        return fragmentCache != null;
+    }
+
+    /**
+     * Returns the rendered HTML of all the extensions
+     *
+     * @return the concatenated HTML of the extensions
+     */
+    public String getHtml() {
+        if (fragmentCache == null) {
+            return "";
+        }
+        StringBuilder html = new StringBuilder();
+        for (Resource extension : resource.getChildren()) {
+            html.append(fragmentCache.getFragment(request, response, extension));
+        }
+        return html.toString();
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.login.impl;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.auth.core.spi.AuthenticationInfo;
+import org.apache.sling.auth.core.spi.DefaultJakartaAuthenticationFeedbackHandler;
+import org.apache.sling.auth.core.spi.JakartaAuthenticationFeedbackHandler;
+import org.apache.sling.auth.core.spi.JakartaAuthenticationHandler;
+import org.apache.sling.auth.core.spi.JakartaAuthenticationInfoPostProcessor;
+import org.apache.sling.starter.login.models.Login;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rejects login form submissions for a user name or from a client that had
+ * too many failed attempts recently. The check runs after the credentials have
+ * been extracted from the request but before the repository login, so a
+ * rejected attempt does not cost a password hash.
+ *
+ * Only the logins that fail in the repository are counted, which the
+ * authenticator reports to the feedback handler of the authentication info.
+ * The throttle puts a counting handler in its place that passes the feedback on.
+ *
+ * The component is only active when a configuration exists, as the client
+ * address is the address of the proxy when there is one in front of the
+ * instance, unless a header with the client address is configured.
+ *
+ * The authenticator only knows its own failure reason codes, so a rejection
+ * is flagged through the <code>j_reason</code> attribute, which the login
+ * page turns into {@link Login#TOO_MANY_ATTEMPTS}.
+ */
+@Component(service = JakartaAuthenticationInfoPostProcessor.class, configurationPolicy = ConfigurationPolicy.REQUIRE)
+@Designate(ocd = LoginThrottle.Config.class)
+public class LoginThrottle implements JakartaAuthenticationInfoPostProcessor {
+
+    @ObjectClassDefinition(
+            name = "Apache Sling Starter Login Throttle",
+            description = "Limits the login attempts per user name and per client")
+    public @interface Config {
+        @AttributeDefinition(
+                name = "Attempts per User",
+                description = "Maximum number of failed login attempts for one user name within the window")
+        int max_attempts_per_user() default 10;
+
+        @AttributeDefinition(
+                name = "Attempts per Client",
+                description = "Maximum number of failed login attempts from one client address within the window")
+        int max_attempts_per_client() default 50;
+
+        @AttributeDefinition(
+                name = "Client Address Header",
+                description = "Header that a trusted proxy sets to the client address, for example X-Forwarded-For."
+                        + " The last address in the header is used. Leave empty to use the address of the connection.")
+        String client_header() default "";
+
+        @AttributeDefinition(name = "Window", description = "Length of the sliding window in seconds")
+        int window_seconds() default 60;
+
+        @AttributeDefinition(
+                name = "Stripes",
+                description = "Number of counters per key kind, more stripes mean fewer keys sharing a counter")
+        int stripes() default 4096;
+    }
+
+    /**
+     * The path the login form posts to
+     */
+    static final String SECURITY_CHECK = "/j_security_check";
+
+    /**
+     * The authentication info property the authenticator takes the feedback
+     * handler of the authentication handler from after the repository login
+     */
+    static final String AUTH_INFO_PROP_FEEDBACK_HANDLER = "$$sling.auth.AuthenticationFeedbackHandler$$";
+
+    /**
+     * Approximate sliding window counts in a fixed number of stripes, so the
+     * memory use does not grow with the number of distinct keys. Keys that
+     * share a stripe share a count, which only errs on the strict side.
+     *
+     * Each stripe is a single long that packs the window number (24 bits), the
+     * count of the previous window (20 bits) and the count of the current
+     * window (20 bits), and is updated with compare-and-set.
+     */
+    static final class SlidingWindowCounter {
+        private static final int COUNT_BITS = 20;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+        private static final long WINDOW_MASK = (1L << 24) - 1;
+
+        private final AtomicLongArray stripes;
+        private final long windowMillis;
+
+        SlidingWindowCounter(int stripes, long windowMillis) {
+            this.stripes = new AtomicLongArray(Math.max(1, stripes));
+            this.windowMillis = Math.max(1, windowMillis);
+        }
+
+        /**
+         * Counts an attempt for the key
+         *
+         * @param key the key to count for
+         * @param now the current time in milliseconds
+         * @return the estimated number of attempts in the sliding window, including this one
+         */
+        int increment(String key, long now) {
+            int index = indexOf(key);
+            long window = (now / windowMillis) & WINDOW_MASK;
+            long prev;
+            long next;
+            do {
+                prev = stripes.get(index);
+                next = roll(prev, window);
+                long current = next & COUNT_MASK;
+                if (current < COUNT_MASK) {
+                    next++;
+                }
+            } while (!stripes.compareAndSet(index, prev, next));
+            return estimate(next, now);
+        }
+
+        /**
+         * Returns the count for the key without counting an attempt
+         *
+         * @param key the key to count for
+         * @param now the current time in milliseconds
+         * @return the estimated number of attempts in the sliding window
+         */
+        int get(String key, long now) {
+            long window = (now / windowMillis) & WINDOW_MASK;
+            return estimate(roll(stripes.get(indexOf(key)), window), now);
+        }
+
+        private int indexOf(String key) {
+            return Math.floorMod(spread(key.hashCode()), stripes.length());
+        }
+
+        /**
+         * Moves the packed value to the window, dropping counts that are too old
+         */
+        private static long roll(long value, long window) {
+            long valueWindow = value >>> (2 * COUNT_BITS);
+            if (valueWindow == window) {
+                return value;
+            }
+            long previous = valueWindow == ((window - 1) & WINDOW_MASK) ? value & COUNT_MASK : 0;
+            return (window << (2 * COUNT_BITS)) | (previous << COUNT_BITS);
+        }
+
+        /**
+         * Weights the count of the previous window by how much of it still
+         * overlaps the sliding window
+         */
+        private int estimate(long value, long now) {
+            long previous = (value >>> COUNT_BITS) & COUNT_MASK;
+            long current = value & COUNT_MASK;
+            double overlap = 1.0 - (double) (now % windowMillis) / windowMillis;
+            return (int) (current + Math.round(previous * overlap));
+        }
+
+        private static int spread(int hash) {
+            // the same bit spreading as a hash map, String hashes differ mostly in the low bits
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final int maxAttemptsPerUser;
+
+    private final int maxAttemptsPerClient;
+
+    final SlidingWindowCounter users;
+
+    private final SlidingWindowCounter clients;
+
+    private final String clientHeader;
+
+    /**
+     * Counts the failed logins and passes the feedback on to the handler of
+     * the authentication handler
+     */
+    final class CountingFeedbackHandler implements JakartaAuthenticationFeedbackHandler {
+        private final JakartaAuthenticationFeedbackHandler delegate;
+        private final String userKey;
+        private final String clientKey;
+
+        CountingFeedbackHandler(JakartaAuthenticationFeedbackHandler delegate, String userKey, String clientKey) {
+            this.delegate = delegate;
+            this.userKey = userKey;
+            this.clientKey = clientKey;
+        }
+
+        @Override
+        public void authenticationFailed(
+                HttpServletRequest request, HttpServletResponse response, AuthenticationInfo authInfo) {
+            long now = System.currentTimeMillis();
+            // count both, so a client cycling through user names is caught as well
+            users.increment(userKey, now);
+            clients.increment(clientKey, now);
+            if (delegate != null) {
+                delegate.authenticationFailed(request, response, authInfo);
+            }
+        }
+
+        @Override
+        public boolean authenticationSucceeded(
+                HttpServletRequest request, HttpServletResponse response, AuthenticationInfo authInfo) {
+            if (delegate != null) {
+                return delegate.authenticationSucceeded(request, response, authInfo);
+            }
+            // what the authenticator does when there is no feedback handler
+            return DefaultJakartaAuthenticationFeedbackHandler.handleRedirect(request, response);
+        }
+    }
+
+    @Activate
+    public LoginThrottle(Config config) {
+        this.maxAttemptsPerUser = config.max_attempts_per_user();
+        this.maxAttemptsPerClient = config.max_attempts_per_client();
+        long windowMillis = config.window_seconds() * 1000L;
+        this.users = new SlidingWindowCounter(config.stripes(), windowMillis);
+        this.clients = new SlidingWindowCounter(config.stripes(), windowMillis);
+        String header = config.client_header();
+        this.clientHeader = header == null || header.isBlank() ? null : header.trim();
+    }
+
+    /**
+     * Returns the address of the client, from the configured header if it is set
+     *
+     * @param request the login request
+     * @return the client address
+     */
+    String getClientAddress(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String value = request.getHeader(clientHeader);
+            if (value != null) {
+                // the trusted proxy appends the address it saw, anything before it may be made up
+                String last = value.substring(value.lastIndexOf(',') + 1).trim();
+                if (!last.isEmpty()) {
+                    return last;
+                }
+            }
+        }
+        return String.valueOf(request.getRemoteAddr());
+    }
+
+    @Override
+    public void postProcess(AuthenticationInfo info, HttpServletRequest request, HttpServletResponse response)
+            throws LoginException {
+        if (info.getUser() == null
+                || info.getPassword() == null
+                || !request.getRequestURI().endsWith(SECURITY_CHECK)) {
+            // only the login form submissions are throttled
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String userKey = info.getUser().toLowerCase(Locale.ROOT);
+        String clientKey = getClientAddress(request);
+        int userFailures = users.get(userKey, now);
+        int clientFailures = clients.get(clientKey, now);
+        if (userFailures >= maxAttemptsPerUser || clientFailures >= maxAttemptsPerClient) {
+            // not counted, so the budget comes back once the failures leave the window
+            logger.debug(
+                    "Rejected login of {} from {}: {} user and {} client failures",
+                    info.getUser(),
+                    clientKey,
+                    userFailures,
+                    clientFailures);
+            request.setAttribute(JakartaAuthenticationHandler.FAILURE_REASON, Login.TOO_MANY_ATTEMPTS);
+            throw new LoginException("Too many login attempts");
+        }
+        Object handler = info.get(AUTH_INFO_PROP_FEEDBACK_HANDLER);
+        info.put(
+                AUTH_INFO_PROP_FEEDBACK_HANDLER,
+                new CountingFeedbackHandler(
+                        handler instanceof JakartaAuthenticationFeedbackHandler feedbackHandler
+                                ? feedbackHandler
+                                : null,
+                        userKey,
+                        clientKey));
+    }
+}
@@ -18,6 +18,12 @@
  */
 package org.apache.sling.starter.login.models;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
 import org.apache.sling.api.SlingJakartaHttpServletRequest;
 import org.apache.sling.auth.core.spi.AuthenticationHandler.FAILURE_REASON_CODES;
 import org.apache.sling.auth.core.spi.JakartaAuthenticationHandler;
@@ -30,6 +36,13 @@ import org.apache.sling.models.annotations.injectorspecific.SlingObject;
 @Model(adaptables = SlingJakartaHttpServletRequest.class)
 public class Login {
 
+    /**
+     * The reason of a login that was rejected by the login throttle. The
+     * authenticator only has its own reason codes, so the throttle passes this
+     * one as the <code>j_reason</code> instead.
+     */
+    public static final String TOO_MANY_ATTEMPTS = "TOO_MANY_ATTEMPTS";
+
     @SlingObject
     protected SlingJakartaHttpServletRequest request;
 
@@ -41,6 +54,26 @@ public class Login {
         return request.getParameter("resource");
     }
 
+    /**
+     * The message for each supported failure reason code, anything else is
+     * reported as {@link FAILURE_REASON_CODES#UNKNOWN}
+     */
+    private static final Map<String, String> REASONS = createReasons();
+
+    private static Map<String, String> createReasons() {
+        Map<String, String> reasons = new LinkedHashMap<>();
+        reasons.put(FAILURE_REASON_CODES.ACCOUNT_LOCKED.name(), "Account is locked");
+        reasons.put(FAILURE_REASON_CODES.ACCOUNT_NOT_FOUND.name(), "Account was not found");
+        reasons.put(FAILURE_REASON_CODES.PASSWORD_EXPIRED.name(), "Password expired");
+        reasons.put(
+                FAILURE_REASON_CODES.PASSWORD_EXPIRED_AND_NEW_PASSWORD_IN_HISTORY.name(),
+                "Password expired and new password found in password history");
+        reasons.put(FAILURE_REASON_CODES.INVALID_LOGIN.name(), "User name and password do not match");
+        reasons.put(FAILURE_REASON_CODES.UNKNOWN.name(), "User name and password do not match");
+        reasons.put(TOO_MANY_ATTEMPTS, "Too many login attempts, please try again later");
+        return Collections.unmodifiableMap(reasons);
+    }
+
     /**
      * Returns an informational message according to the value provided in the
      * <code>j_reason_code</code> request parameter. Supported reasons are invalid
@@ -50,36 +83,25 @@ public class Login {
      *         if there is no specific reason
      */
     public String getReason() {
-        String reason = null;
         String jReasonCode = request.getParameter(JakartaAuthenticationHandler.FAILURE_REASON_CODE);
-        if (jReasonCode != null && !jReasonCode.isEmpty()) {
-            FAILURE_REASON_CODES reasonCode;
-            try {
-                reasonCode = FAILURE_REASON_CODES.valueOf(jReasonCode);
-            } catch (IllegalArgumentException iae) {
-                reasonCode = FAILURE_REASON_CODES.UNKNOWN;
-            }
-
-            switch (reasonCode) {
-                case ACCOUNT_LOCKED:
-                    reason = "Account is locked";
-                    break;
-                case ACCOUNT_NOT_FOUND:
-                    reason = "Account was not found";
-                    break;
-                case PASSWORD_EXPIRED:
-                    reason = "Password expired";
-                    break;
-                case PASSWORD_EXPIRED_AND_NEW_PASSWORD_IN_HISTORY:
-                    reason = "Password expired and new password found in password history";
-                    break;
-                case UNKNOWN, INVALID_LOGIN:
-                default:
-                    reason = "User name and password do not match";
-                    break;
-            }
+        if (TOO_MANY_ATTEMPTS.equals(request.getParameter(JakartaAuthenticationHandler.FAILURE_REASON))) {
+            jReasonCode = TOO_MANY_ATTEMPTS;
         }
+        if (jReasonCode == null || jReasonCode.isEmpty()) {
+            return null;
+        }
+        return REASONS.getOrDefault(jReasonCode, REASONS.get(FAILURE_REASON_CODES.UNKNOWN.name()));
+    }
 
-        return reason;
+    /**
+     * Returns the messages of all the failure reason codes, which the static
+     * login page looks up in the browser so its markup does not depend on the request.
+     *
+     * @return JSON object of the reason codes to their message
+     */
+    public String getReasonsJson() {
+        JsonObjectBuilder json = Json.createObjectBuilder();
+        REASONS.forEach(json::add);
+        return json.build().toString();
     }
 }
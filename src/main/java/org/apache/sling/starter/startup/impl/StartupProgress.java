@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.startup.impl;
+
+import javax.jcr.Repository;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.jetbrains.annotations.NotNull;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records when the phases of the instance startup are reached, measured from
+ * the start of the JVM, so the log tells which phase takes the longest.
+ *
+ * Each phase is taken from a signal of the current start: the repository
+ * service being registered, the initial content being written or found once
+ * the content loader has processed the started bundles, and the framework
+ * reaching its start level.
+ */
+@Component(
+        service = {StartupProgress.class, ResourceChangeListener.class},
+        immediate = true,
+        property = {
+            ResourceChangeListener.PATHS + "=" + StartupProgress.READY_MARKER_PATH,
+            ResourceChangeListener.CHANGES + "=ADDED",
+            ResourceChangeListener.CHANGES + "=CHANGED"
+        })
+public class StartupProgress implements ResourceChangeListener, FrameworkListener {
+    static final String SUBSERVICE_NAME = "startup-progress";
+
+    /**
+     * The resource that is installed with the initial content of the starter
+     */
+    static final String READY_MARKER_PATH = "/content/starter/ready";
+
+    /**
+     * The phases of the startup, in the order they are reached
+     */
+    public enum Phase {
+        REPOSITORY_READY("Repository ready"),
+        INITIAL_CONTENT_INSTALLED("Initial content installed"),
+        BUNDLES_STARTED("Bundles started");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final long startTime;
+
+    private final Map<Phase, Long> reached = new EnumMap<>(Phase.class);
+
+    private volatile ResourceResolverFactory resolverFactory;
+
+    private BundleContext bundleContext;
+
+    public StartupProgress() {
+        this(ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    StartupProgress(long startTime) {
+        this.startTime = startTime;
+    }
+
+    @Activate
+    protected void activate(BundleContext bundleContext) {
+        this.bundleContext = bundleContext;
+        bundleContext.addFrameworkListener(this);
+        // the system bundle only becomes active once the start level is reached
+        Bundle systemBundle = bundleContext.getBundle(0);
+        if (systemBundle != null && systemBundle.getState() == Bundle.ACTIVE) {
+            bundlesStarted();
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        bundleContext.removeFrameworkListener(this);
+    }
+
+    @Reference(
+            cardinality = ReferenceCardinality.OPTIONAL,
+            policy = ReferencePolicy.DYNAMIC,
+            policyOption = ReferencePolicyOption.GREEDY)
+    protected void bindRepository(Repository repository) {
+        reach(Phase.REPOSITORY_READY);
+    }
+
+    protected void unbindRepository(Repository repository) {
+        // a phase that has been reached stays reached
+    }
+
+    @Reference(
+            cardinality = ReferenceCardinality.OPTIONAL,
+            policy = ReferencePolicy.DYNAMIC,
+            policyOption = ReferencePolicyOption.GREEDY)
+    protected void bindResourceResolverFactory(ResourceResolverFactory resolverFactory) {
+        this.resolverFactory = resolverFactory;
+    }
+
+    protected void unbindResourceResolverFactory(ResourceResolverFactory resolverFactory) {
+        if (this.resolverFactory == resolverFactory) {
+            this.resolverFactory = null;
+        }
+    }
+
+    @Override
+    public void frameworkEvent(FrameworkEvent event) {
+        if (event.getType() == FrameworkEvent.STARTED) {
+            bundlesStarted();
+        }
+    }
+
+    /**
+     * The content loader has processed the content of all the started bundles by
+     * now, so a marker that is there has been installed or checked in this start.
+     */
+    void bundlesStarted() {
+        if (!reached(Phase.INITIAL_CONTENT_INSTALLED) && hasReadyMarker()) {
+            reach(Phase.INITIAL_CONTENT_INSTALLED);
+        }
+        reach(Phase.BUNDLES_STARTED);
+    }
+
+    private boolean hasReadyMarker() {
+        ResourceResolverFactory factory = resolverFactory;
+        if (factory == null) {
+            return false;
+        }
+        try (ResourceResolver resolver =
+                factory.getServiceResourceResolver(Map.of(ResourceResolverFactory.SUBSERVICE, SUBSERVICE_NAME))) {
+            return resolver.getResource(READY_MARKER_PATH) != null;
+        } catch (LoginException e) {
+            logger.debug("Unable to check for the initial content, waiting for it to be added", e);
+            return false;
+        }
+    }
+
+    @Override
+    public void onChange(@NotNull List<ResourceChange> changes) {
+        // the content loader writes the marker while installing the content
+        reach(Phase.INITIAL_CONTENT_INSTALLED);
+    }
+
+    private boolean reached(Phase phase) {
+        synchronized (reached) {
+            return reached.containsKey(phase);
+        }
+    }
+
+    /**
+     * Records that the phase has been reached, the first time only
+     *
+     * @param phase the phase that has been reached
+     */
+    void reach(Phase phase) {
+        synchronized (reached) {
+            if (!reached.containsKey(phase)) {
+                long elapsed = System.currentTimeMillis() - startTime;
+                reached.put(phase, elapsed);
+                logger.info("Startup phase '{}' reached after {} ms", phase.getLabel(), elapsed);
+            }
+        }
+    }
+
+    /**
+     * Returns the phases reached so far with the milliseconds it took to reach them
+     *
+     * @return the reached phases in the order of the phases
+     */
+    public @NotNull Map<Phase, Long> getReached() {
+        synchronized (reached) {
+            return new EnumMap<>(reached);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.jcr.jackrabbit.accessmanager.GetAcl;
+import org.apache.sling.jcr.jackrabbit.accessmanager.PrivilegesInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AceOrderServletTest {
+    private static final String ACL_JSON = "{"
+            + "\"testUser2\":{\"principal\":\"testUser2\",\"order\":2,\"privileges\":{}},"
+            + "\"testUser1\":{\"principal\":\"testUser1\",\"order\":0,\"privileges\":{}},"
+            + "\"testGroup1\":{\"principal\":\"testGroup1\",\"order\":1,\"privileges\":{}},"
+            + "\"other\":{\"principal\":\"other\",\"order\":3,\"privileges\":{}}"
+            + "}";
+
+    private AceOrderServlet servlet;
+    private GetAcl getAcl;
+    private SlingJakartaHttpServletRequest request;
+    private SlingJakartaHttpServletResponse response;
+    private StringWriter output;
+    private Node node;
+    private JsonObject acl;
+
+    @BeforeEach
+    void beforeEach() throws IOException, RepositoryException {
+        getAcl = Mockito.mock(GetAcl.class);
+        servlet = new AceOrderServlet(getAcl);
+        servlet.privilegesInfo = Mockito.mock(PrivilegesInfo.class);
+
+        request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        response = Mockito.mock(SlingJakartaHttpServletResponse.class);
+        Resource resource = Mockito.mock(Resource.class);
+        node = Mockito.mock(Node.class);
+        Mockito.when(request.getResource()).thenReturn(resource);
+        Mockito.when(resource.getPath()).thenReturn("/content/test1");
+        Mockito.when(resource.adaptTo(Node.class)).thenReturn(node);
+        ResourceResolver rr = Mockito.mock(ResourceResolver.class);
+        Session session = Mockito.mock(Session.class);
+        Mockito.when(request.getResourceResolver()).thenReturn(rr);
+        Mockito.when(rr.adaptTo(Session.class)).thenReturn(session);
+        output = new StringWriter();
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(output));
+
+        try (JsonReader reader = Json.createReader(new StringReader(ACL_JSON))) {
+            acl = reader.readObject();
+        }
+        Mockito.when(getAcl.getAcl(session, "/content/test1")).thenReturn(acl);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AceOrderServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}.
+     */
+    @Test
+    void testDoGet() throws ServletException, IOException {
+        Mockito.when(servlet.privilegesInfo.canReadAccessControl(node)).thenReturn(true);
+        Mockito.when(request.getParameter("pid")).thenReturn("testUser1");
+        Mockito.when(request.getParameter("limit")).thenReturn("2");
+
+        servlet.doGet(request, response);
+        assertEquals("{\"total\":3,\"offset\":0,\"items\":[\"testGroup1\",\"testUser2\"]}", output.toString());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AceOrderServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * for a later page.
+     */
+    @Test
+    void testDoGetNextPage() throws ServletException, IOException {
+        Mockito.when(servlet.privilegesInfo.canReadAccessControl(node)).thenReturn(true);
+        Mockito.when(request.getParameter("offset")).thenReturn("3");
+        Mockito.when(request.getParameter("limit")).thenReturn("2");
+
+        servlet.doGet(request, response);
+        assertEquals("{\"total\":4,\"offset\":3,\"items\":[\"other\"]}", output.toString());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AceOrderServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * without access to the access control content.
+     */
+    @Test
+    void testDoGetNotAllowed() throws ServletException, IOException {
+        Mockito.when(servlet.privilegesInfo.canReadAccessControl(node)).thenReturn(false);
+        Mockito.when(request.getRemoteUser()).thenReturn("testUser1");
+        servlet.doGet(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_FORBIDDEN);
+        Mockito.verifyNoInteractions(getAcl);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AceOrderServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * for a resource that is not a node.
+     */
+    @Test
+    void testDoGetWithoutNode() throws ServletException, IOException {
+        Mockito.when(request.getResource().adaptTo(Node.class)).thenReturn(null);
+        servlet.doGet(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+        Mockito.verifyNoInteractions(servlet.privilegesInfo, getAcl);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AceOrderServlet#filter(JsonObject, String, String)}.
+     */
+    @Test
+    void testFilter() {
+        assertEquals(List.of("testUser1", "testGroup1", "testUser2", "other"), AceOrderServlet.filter(acl, null, null));
+        assertEquals(List.of("testGroup1", "testUser2"), AceOrderServlet.filter(acl, "testUser1", "TEST"));
+        assertEquals(List.of("other"), AceOrderServlet.filter(acl, null, " o "));
+        assertEquals(List.of(), AceOrderServlet.filter(acl, null, "zzz"));
+    }
+}
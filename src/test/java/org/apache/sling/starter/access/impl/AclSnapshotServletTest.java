@@ -0,0 +1,407 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.Node;
+import javax.jcr.PropertyType;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+import javax.jcr.ValueFactory;
+import javax.jcr.security.AccessControlEntry;
+import javax.jcr.security.AccessControlManager;
+import javax.jcr.security.AccessControlPolicy;
+import javax.jcr.security.Privilege;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.JackrabbitAccessControlEntry;
+import org.apache.jackrabbit.api.security.JackrabbitAccessControlList;
+import org.apache.jackrabbit.api.security.principal.PrincipalManager;
+import org.apache.jackrabbit.commons.iterator.NodeIteratorAdapter;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.jcr.jackrabbit.accessmanager.PrivilegesInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AclSnapshotServletTest {
+    private static final String EVERYONE_LINE =
+            "{\"path\":\"/content/test1\",\"principal\":\"everyone\",\"allow\":true,"
+                    + "\"privileges\":[\"jcr:read\"],\"restrictions\":{\"rep:glob\":\"*\"}}";
+    private static final String TEST_USER_LINE =
+            "{\"path\":\"/content/test1\",\"principal\":\"testUser1\",\"allow\":false,"
+                    + "\"privileges\":[\"jcr:write\"],\"restrictions\":{\"rep:ntNames\":[\"nt:file\"]}}";
+
+    private AclSnapshotServlet servlet;
+    private SlingJakartaHttpServletRequest request;
+    private SlingJakartaHttpServletResponse response;
+    private StringWriter output;
+    private Node node;
+    private JackrabbitSession session;
+    private AccessControlManager acm;
+    private JackrabbitAccessControlList acl;
+    private JackrabbitAccessControlEntry everyoneAce;
+
+    @BeforeEach
+    void beforeEach() throws IOException, RepositoryException {
+        servlet = new AclSnapshotServlet();
+        servlet.privilegesInfo = Mockito.mock(PrivilegesInfo.class);
+
+        request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        response = Mockito.mock(SlingJakartaHttpServletResponse.class);
+        Resource resource = Mockito.mock(Resource.class);
+        node = Mockito.mock(Node.class);
+        session = Mockito.mock(JackrabbitSession.class);
+        acm = Mockito.mock(AccessControlManager.class);
+        Mockito.when(request.getResource()).thenReturn(resource);
+        Mockito.when(resource.adaptTo(Node.class)).thenReturn(node);
+        Mockito.when(node.getSession()).thenReturn(session);
+        Mockito.when(node.getPath()).thenReturn("/content/test1");
+        Mockito.when(session.getAccessControlManager()).thenReturn(acm);
+        Mockito.when(session.nodeExists("/content/test1")).thenReturn(true);
+        output = new StringWriter();
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(output));
+
+        Privilege read = mockPrivilege("jcr:read");
+        Privilege write = mockPrivilege("jcr:write");
+        Mockito.when(acm.privilegeFromName("jcr:read")).thenReturn(read);
+        Mockito.when(acm.privilegeFromName("jcr:write")).thenReturn(write);
+
+        Principal everyone = Mockito.mock(Principal.class);
+        Mockito.when(everyone.getName()).thenReturn("everyone");
+        Value glob = Mockito.mock(Value.class);
+        Mockito.when(glob.getString()).thenReturn("*");
+        everyoneAce = Mockito.mock(JackrabbitAccessControlEntry.class);
+        Mockito.when(everyoneAce.getPrincipal()).thenReturn(everyone);
+        Mockito.when(everyoneAce.isAllow()).thenReturn(true);
+        Mockito.when(everyoneAce.getPrivileges()).thenReturn(new Privilege[] {read});
+        Mockito.when(everyoneAce.getRestrictionNames()).thenReturn(new String[] {"rep:glob"});
+        Mockito.when(everyoneAce.getRestriction("rep:glob")).thenReturn(glob);
+
+        acl = Mockito.mock(JackrabbitAccessControlList.class);
+        Mockito.when(acl.getAccessControlEntries()).thenReturn(new AccessControlEntry[] {everyoneAce});
+        Mockito.when(acl.getRestrictionType("rep:ntNames")).thenReturn(PropertyType.NAME);
+        Mockito.when(acm.getPolicies("/content/test1")).thenReturn(new AccessControlPolicy[] {acl});
+        Mockito.when(acm.getPolicies("/content/test1/child")).thenReturn(new AccessControlPolicy[0]);
+    }
+
+    private static Privilege mockPrivilege(String name) {
+        Privilege privilege = Mockito.mock(Privilege.class);
+        Mockito.when(privilege.getName()).thenReturn(name);
+        return privilege;
+    }
+
+    private void mockImport(String snapshot) throws IOException, RepositoryException {
+        Mockito.when(servlet.privilegesInfo.canModifyAccessControl(node)).thenReturn(true);
+        Mockito.when(request.getReader()).thenReturn(new BufferedReader(new StringReader(snapshot)));
+
+        PrincipalManager principalManager = Mockito.mock(PrincipalManager.class);
+        Mockito.when(session.getPrincipalManager()).thenReturn(principalManager);
+        Principal everyone = everyoneAce.getPrincipal();
+        Mockito.when(principalManager.getPrincipal("everyone")).thenReturn(everyone);
+        Principal testUser = Mockito.mock(Principal.class);
+        Mockito.when(principalManager.getPrincipal("testUser1")).thenReturn(testUser);
+        ValueFactory valueFactory = Mockito.mock(ValueFactory.class);
+        Mockito.when(session.getValueFactory()).thenReturn(valueFactory);
+        Value value = Mockito.mock(Value.class);
+        Mockito.when(valueFactory.createValue(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenReturn(value);
+    }
+
+    private List<String> outputLines() {
+        return output.toString().lines().toList();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}.
+     */
+    @Test
+    void testDoGet() throws ServletException, IOException, RepositoryException {
+        Mockito.when(servlet.privilegesInfo.canReadAccessControl(node)).thenReturn(true);
+        Node child = Mockito.mock(Node.class);
+        Mockito.when(child.getName()).thenReturn("child");
+        Mockito.when(child.getPath()).thenReturn("/content/test1/child");
+        Mockito.when(child.getNodes()).thenReturn(new NodeIteratorAdapter(List.of()));
+        Node policy = Mockito.mock(Node.class);
+        Mockito.when(policy.getName()).thenReturn("rep:policy");
+        Mockito.when(node.getNodes()).thenReturn(new NodeIteratorAdapter(List.of(policy, child)));
+
+        servlet.doGet(request, response);
+        Mockito.verify(response).setContentType(AclSnapshotServlet.CONTENT_TYPE);
+        assertEquals(List.of(EVERYONE_LINE), outputLines());
+        Mockito.verify(policy, Mockito.never()).getNodes();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * without access to the access control content.
+     */
+    @Test
+    void testDoGetNotAllowed() throws ServletException, IOException {
+        Mockito.when(servlet.privilegesInfo.canReadAccessControl(node)).thenReturn(false);
+        servlet.doGet(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+        Mockito.verifyNoInteractions(acm);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * as a dry run.
+     */
+    @Test
+    void testDoPostDryRun() throws ServletException, IOException, RepositoryException {
+        mockImport(EVERYONE_LINE + "\n\n" + TEST_USER_LINE + "\n");
+        Mockito.when(request.getParameter(AclSnapshotServlet.PARAM_DRY_RUN)).thenReturn("true");
+
+        servlet.doPost(request, response);
+        List<String> lines = outputLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"action\":\"add\",\"principal\":\"testUser1\""));
+        assertEquals(
+                "{\"path\":\"/content/test1\",\"action\":\"summary\",\"paths\":1,\"changed\":1,\"added\":1,"
+                        + "\"removed\":0,\"errors\":0,\"dryRun\":true,\"removeMissing\":false}",
+                lines.get(1));
+        Mockito.verify(acl, Mockito.never()).removeAccessControlEntry(ArgumentMatchers.any());
+        Mockito.verify(acm, Mockito.never()).setPolicy(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+        Mockito.verify(session, Mockito.never()).save();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}.
+     */
+    @Test
+    void testDoPost() throws ServletException, IOException, RepositoryException {
+        mockImport(TEST_USER_LINE + "\n");
+
+        servlet.doPost(request, response);
+        List<String> lines = outputLines();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"action\":\"remove\",\"principal\":\"everyone\""));
+        assertTrue(lines.get(1).contains("\"action\":\"add\",\"principal\":\"testUser1\""));
+        assertTrue(lines.get(2).contains("\"changed\":1,\"added\":1,\"removed\":1,\"errors\":0,\"dryRun\":false"));
+        Mockito.verify(acl).removeAccessControlEntry(everyoneAce);
+        Mockito.verify(acl)
+                .addEntry(
+                        ArgumentMatchers.any(Principal.class),
+                        ArgumentMatchers.any(Privilege[].class),
+                        ArgumentMatchers.eq(false),
+                        ArgumentMatchers.eq(Map.of()),
+                        ArgumentMatchers.argThat(values -> values.containsKey("rep:ntNames")));
+        Mockito.verify(acm).setPolicy("/content/test1", acl);
+        Mockito.verify(session).save();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * for a snapshot that is the same as the current entries.
+     */
+    @Test
+    void testDoPostUnchanged() throws ServletException, IOException, RepositoryException {
+        mockImport(EVERYONE_LINE);
+
+        servlet.doPost(request, response);
+        assertEquals(1, outputLines().size());
+        Mockito.verify(acm, Mockito.never()).setPolicy(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+        Mockito.verify(session, Mockito.never()).save();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * for a snapshot with an invalid line or a path outside of the resource.
+     */
+    @Test
+    void testDoPostInvalidLines() throws ServletException, IOException, RepositoryException {
+        mockImport(TEST_USER_LINE + "\n{\"path\":\"/content/test1\",\"principal\":\"testUser2\"}\n"
+                + "{\"path\":\"/content/other\",\"principal\":\"testUser1\",\"allow\":true,\"privileges\":[]}\n"
+                + "not json\n");
+
+        servlet.doPost(request, response);
+        List<String> lines = outputLines();
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"path\":\"/content/test1\",\"action\":\"error\""));
+        assertTrue(lines.get(1).startsWith("{\"path\":\"/content/other\",\"action\":\"error\""));
+        assertTrue(lines.get(2).startsWith("{\"path\":\"/content/test1\",\"action\":\"error\""));
+        assertTrue(lines.get(3).contains("\"paths\":0,\"changed\":0,\"added\":0,\"removed\":0,\"errors\":3"));
+        Mockito.verify(acl, Mockito.never()).removeAccessControlEntry(ArgumentMatchers.any());
+        Mockito.verify(session, Mockito.never()).save();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * for a path whose lines do not follow each other.
+     */
+    @Test
+    void testDoPostPathAgain() throws ServletException, IOException, RepositoryException {
+        mockImport(TEST_USER_LINE + "\n" + EVERYONE_LINE.replace("/content/test1", "/content/test1/child") + "\n"
+                + EVERYONE_LINE + "\n" + EVERYONE_LINE + "\n");
+
+        servlet.doPost(request, response);
+        List<String> lines = outputLines();
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(0).contains("\"action\":\"remove\",\"principal\":\"everyone\""));
+        assertTrue(lines.get(1).contains("\"action\":\"add\",\"principal\":\"testUser1\""));
+        assertTrue(lines.get(2).startsWith("{\"path\":\"/content/test1/child\",\"action\":\"error\""));
+        // reported once, and the entries applied from the first lines are kept
+        assertTrue(lines.get(3).startsWith("{\"path\":\"/content/test1\",\"action\":\"error\""));
+        assertTrue(lines.get(3).contains("Line 3: the lines of the path do not follow each other"));
+        assertTrue(lines.get(4).contains("\"paths\":2,\"changed\":1,\"added\":1,\"removed\":1,\"errors\":2"));
+        Mockito.verify(acm).setPolicy("/content/test1", acl);
+        Mockito.verify(acl, Mockito.never())
+                .addEntry(
+                        ArgumentMatchers.eq(everyoneAce.getPrincipal()),
+                        ArgumentMatchers.any(Privilege[].class),
+                        ArgumentMatchers.anyBoolean(),
+                        ArgumentMatchers.anyMap(),
+                        ArgumentMatchers.anyMap());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * for an unknown principal.
+     */
+    @Test
+    void testDoPostUnknownPrincipal() throws ServletException, IOException, RepositoryException {
+        mockImport(TEST_USER_LINE.replace("testUser1", "unknown"));
+
+        servlet.doPost(request, response);
+        List<String> lines = outputLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("Principal not found: unknown"));
+        Mockito.verify(acl, Mockito.never()).removeAccessControlEntry(ArgumentMatchers.any());
+        Mockito.verify(session, Mockito.never()).save();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * removing the entries of the paths that are not in the snapshot.
+     */
+    @Test
+    void testDoPostRemoveMissing() throws ServletException, IOException, RepositoryException {
+        mockImport(EVERYONE_LINE);
+        Mockito.when(request.getParameter(AclSnapshotServlet.PARAM_REMOVE_MISSING))
+                .thenReturn("true");
+        Node child = Mockito.mock(Node.class);
+        Mockito.when(child.getName()).thenReturn("child");
+        Mockito.when(child.getPath()).thenReturn("/content/test1/child");
+        Mockito.when(child.getNodes()).thenReturn(new NodeIteratorAdapter(List.of()));
+        Mockito.when(node.getNodes()).thenReturn(new NodeIteratorAdapter(List.of(child)));
+        Mockito.when(session.getNode("/content/test1")).thenReturn(node);
+        Mockito.when(session.nodeExists("/content/test1/child")).thenReturn(true);
+        JackrabbitAccessControlList childAcl = Mockito.mock(JackrabbitAccessControlList.class);
+        Mockito.when(childAcl.getAccessControlEntries()).thenReturn(new AccessControlEntry[] {everyoneAce});
+        Mockito.when(acm.getPolicies("/content/test1/child")).thenReturn(new AccessControlPolicy[] {childAcl});
+
+        servlet.doPost(request, response);
+        List<String> lines = outputLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"path\":\"/content/test1/child\",\"action\":\"remove\""));
+        assertTrue(lines.get(1).contains("\"paths\":2,\"changed\":1,\"added\":0,\"removed\":1"));
+        Mockito.verify(acm).removePolicy("/content/test1/child", childAcl);
+        Mockito.verify(acm, Mockito.never()).setPolicy(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+        Mockito.verify(session).save();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * for a resource that is not a node.
+     */
+    @Test
+    void testDoPostWithoutNode() throws ServletException, IOException {
+        Mockito.when(request.getResource().adaptTo(Node.class)).thenReturn(null);
+        servlet.doPost(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+        Mockito.verifyNoInteractions(servlet.privilegesInfo);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#doPost(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * without access to modify the access control content.
+     */
+    @Test
+    void testDoPostNotAllowed() throws ServletException, IOException {
+        Mockito.when(servlet.privilegesInfo.canModifyAccessControl(node)).thenReturn(false);
+        Mockito.when(request.getRemoteUser()).thenReturn("testUser1");
+        servlet.doPost(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_FORBIDDEN);
+        Mockito.verifyNoInteractions(acm);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#parseEntry(JsonObject)}.
+     */
+    @Test
+    void testParseEntry() {
+        AclSnapshotServlet.Entry entry = AclSnapshotServlet.parseEntry(parse(TEST_USER_LINE));
+        assertEquals("testUser1", entry.principal());
+        assertFalse(entry.allow());
+        assertEquals(List.of("jcr:write"), List.copyOf(entry.privileges()));
+        assertEquals(parse(TEST_USER_LINE).getJsonObject("restrictions"), entry.restrictions());
+
+        assertThrows(IllegalArgumentException.class, () -> AclSnapshotServlet.parseEntry(parse("{}")));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> AclSnapshotServlet.parseEntry(parse("{\"principal\":\"a\",\"privileges\":[1],\"allow\":true}")));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> AclSnapshotServlet.parseEntry(
+                        parse("{\"principal\":\"a\",\"privileges\":[],\"allow\":\"yes\"}")));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> AclSnapshotServlet.parseEntry(
+                        parse("{\"principal\":\"a\",\"privileges\":[],\"allow\":true,\"restrictions\":{\"r\":1}}")));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.AclSnapshotServlet#isSkipped(String)}.
+     */
+    @Test
+    void testIsSkipped() {
+        assertTrue(AclSnapshotServlet.isSkipped("rep:policy"));
+        assertTrue(AclSnapshotServlet.isSkipped("rep:repoPolicy"));
+        assertTrue(AclSnapshotServlet.isSkipped("jcr:system"));
+        assertFalse(AclSnapshotServlet.isSkipped("child"));
+    }
+
+    private static JsonObject parse(String json) {
+        try (JsonReader reader = Json.createReader(new StringReader(json))) {
+            return reader.readObject();
+        }
+    }
+}
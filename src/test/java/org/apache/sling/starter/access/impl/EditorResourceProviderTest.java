@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.spi.resource.provider.ResolveContext;
+import org.apache.sling.spi.resource.provider.ResourceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.osgi.framework.Bundle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EditorResourceProviderTest {
+    @TempDir
+    Path dir;
+
+    private EditorResourceProvider provider;
+    private ResolveContext<Object> ctx;
+    private ResourceResolver resolver;
+    private URL script;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void beforeEach() throws IOException {
+        Path access = Files.createDirectories(dir.resolve("access"));
+        URL folder = access.toUri().toURL();
+        script = Files.writeString(access.resolve("acl.js"), "var acl;").toUri().toURL();
+
+        Bundle bundle = Mockito.mock(Bundle.class);
+        Mockito.when(bundle.getLastModified()).thenReturn(1000L);
+        Mockito.when(bundle.getEntry("/editor-content/content/starter/access/acl.js"))
+                .thenReturn(script);
+        Mockito.when(bundle.getEntry("/editor-content/content/starter/access/")).thenReturn(folder);
+        Mockito.when(bundle.getEntryPaths("/editor-content/content/starter/access"))
+                .thenAnswer(inv -> Collections.enumeration(List.of("editor-content/content/starter/access/acl.js")));
+        provider = new EditorResourceProvider(bundle, "/editor-content");
+
+        ctx = Mockito.mock(ResolveContext.class);
+        resolver = Mockito.mock(ResourceResolver.class);
+        Mockito.when(ctx.getResourceResolver()).thenReturn(resolver);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.EditorResourceProvider#getResource(org.apache.sling.spi.resource.provider.ResolveContext, java.lang.String, org.apache.sling.spi.resource.provider.ResourceContext, org.apache.sling.api.resource.Resource)}.
+     */
+    @Test
+    void testGetResource() throws IOException {
+        Resource file =
+                provider.getResource(ctx, "/content/starter/access/acl.js", ResourceContext.EMPTY_CONTEXT, null);
+        assertNotNull(file);
+        assertEquals("nt:file", file.getResourceType());
+        assertEquals("acl.js", file.getName());
+        assertEquals(1000L, file.getResourceMetadata().getModificationTime());
+        assertEquals("application/javascript", file.getResourceMetadata().getContentType());
+        assertEquals(8L, file.getResourceMetadata().getContentLength());
+        assertEquals(resolver, file.getResourceResolver());
+        assertEquals(script, file.adaptTo(URL.class));
+        try (InputStream in = file.adaptTo(InputStream.class)) {
+            assertEquals("var acl;", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        Resource folder = provider.getResource(ctx, "/content/starter/access", ResourceContext.EMPTY_CONTEXT, null);
+        assertNotNull(folder);
+        assertEquals("nt:folder", folder.getResourceType());
+        assertNull(folder.adaptTo(InputStream.class));
+
+        assertNull(provider.getResource(ctx, "/content/starter/access/other.js", ResourceContext.EMPTY_CONTEXT, null));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.EditorResourceProvider#listChildren(org.apache.sling.spi.resource.provider.ResolveContext, org.apache.sling.api.resource.Resource)}.
+     */
+    @Test
+    void testListChildren() {
+        Resource folder = provider.getResource(ctx, "/content/starter/access", ResourceContext.EMPTY_CONTEXT, null);
+        Iterator<Resource> children = provider.listChildren(ctx, folder);
+        List<String> paths = new ArrayList<>();
+        children.forEachRemaining(child -> paths.add(child.getPath()));
+        assertEquals(List.of("/content/starter/access/acl.js"), paths);
+
+        Resource file =
+                provider.getResource(ctx, "/content/starter/access/acl.js", ResourceContext.EMPTY_CONTEXT, null);
+        assertNull(provider.listChildren(ctx, file));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.EditorResourceProvider#getContentType(String)}.
+     */
+    @Test
+    void testGetContentType() {
+        assertEquals("text/css", EditorResourceProvider.getContentType("/content/starter/access/acl.css"));
+        assertEquals("text/html", EditorResourceProvider.getContentType("/apps/sling/servlet/default/ACL.HTML"));
+        assertEquals("application/gzip", EditorResourceProvider.getContentType("/content/starter/access/acl.js.gz"));
+        assertEquals(
+                EditorResourceProvider.DEFAULT_CONTENT_TYPE,
+                EditorResourceProvider.getContentType("/content/starter/access/acl.js.br"));
+        assertEquals(
+                EditorResourceProvider.DEFAULT_CONTENT_TYPE,
+                EditorResourceProvider.getContentType("/content/a.b/file"));
+    }
+}
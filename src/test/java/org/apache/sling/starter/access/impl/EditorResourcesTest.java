@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.apache.sling.spi.resource.provider.ResourceProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EditorResourcesTest {
+    private ResourceResolverFactory factory;
+    private ResourceResolver resolver;
+    private BundleContext bundleContext;
+    private Bundle bundle;
+    private ServiceRegistration<?> registration;
+
+    @BeforeEach
+    void beforeEach() throws IOException, LoginException {
+        factory = Mockito.mock(ResourceResolverFactory.class);
+        resolver = Mockito.mock(ResourceResolver.class);
+        Mockito.when(factory.getServiceResourceResolver(
+                        Map.of(ResourceResolverFactory.SUBSERVICE, EditorResources.SUBSERVICE_NAME)))
+                .thenReturn(resolver);
+        bundle = Mockito.mock(Bundle.class);
+        Mockito.when(bundle.getLastModified()).thenReturn(2000L);
+        bundleContext = Mockito.mock(BundleContext.class);
+        Mockito.when(bundleContext.getBundle()).thenReturn(bundle);
+        registration = Mockito.mock(ServiceRegistration.class);
+        Mockito.doReturn(registration)
+                .when(bundleContext)
+                .registerService(
+                        Mockito.eq(ResourceProvider.class), Mockito.any(ResourceProvider.class), Mockito.any());
+    }
+
+    private static EditorResources.Config config(String mode) {
+        EditorResources.Config config = Mockito.mock(EditorResources.Config.class);
+        Mockito.when(config.mode()).thenReturn(mode);
+        return config;
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.EditorResources#EditorResources(org.apache.sling.api.resource.ResourceResolverFactory, org.osgi.framework.BundleContext, org.apache.sling.starter.access.impl.EditorResources.Config)}.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    void testBundleMode() {
+        EditorResources resources = new EditorResources(factory, bundleContext, config(EditorResources.MODE_BUNDLE));
+        ArgumentCaptor<Dictionary<String, ?>> properties = ArgumentCaptor.forClass(Dictionary.class);
+        Mockito.verify(bundleContext, Mockito.times(3))
+                .registerService(
+                        Mockito.eq(ResourceProvider.class), Mockito.any(ResourceProvider.class), properties.capture());
+        assertEquals(
+                EditorResources.ROOTS,
+                properties.getAllValues().stream()
+                        .map(p -> p.get(ResourceProvider.PROPERTY_ROOT))
+                        .toList());
+        assertEquals(
+                List.of("starter-editor-acl.html", "starter-editor-ace.html", "starter-editor-access"),
+                properties.getAllValues().stream()
+                        .map(p -> p.get(ResourceProvider.PROPERTY_NAME))
+                        .toList());
+
+        resources.deactivate();
+        Mockito.verify(registration, Mockito.times(3)).unregister();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.EditorResources#EditorResources(org.apache.sling.api.resource.ResourceResolverFactory, org.osgi.framework.BundleContext, org.apache.sling.starter.access.impl.EditorResources.Config)}.
+     */
+    @Test
+    void testBundleModeRemovesRepositoryCopies() throws RepositoryException {
+        Session session = Mockito.mock(Session.class);
+        Mockito.when(resolver.adaptTo(Session.class)).thenReturn(session);
+        Mockito.when(session.nodeExists("/apps/sling/servlet/default/acl.html")).thenReturn(true);
+        Mockito.when(session.nodeExists("/content/starter/access")).thenReturn(true);
+
+        new EditorResources(factory, bundleContext, config(EditorResources.MODE_BUNDLE));
+        Mockito.verify(session).removeItem("/apps/sling/servlet/default/acl.html");
+        Mockito.verify(session).removeItem("/content/starter/access");
+        Mockito.verify(session, Mockito.never()).removeItem("/apps/sling/servlet/default/ace.html");
+        Mockito.verify(session).save();
+        Mockito.verify(resolver).close();
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.EditorResources#EditorResources(org.apache.sling.api.resource.ResourceResolverFactory, org.osgi.framework.BundleContext, org.apache.sling.starter.access.impl.EditorResources.Config)}.
+     */
+    @Test
+    void testBundleModeWithoutServiceUser() throws LoginException {
+        Mockito.when(factory.getServiceResourceResolver(Mockito.anyMap())).thenThrow(new LoginException("no mapping"));
+
+        new EditorResources(factory, bundleContext, config(EditorResources.MODE_BUNDLE));
+        Mockito.verify(bundleContext, Mockito.times(3))
+                .registerService(
+                        Mockito.eq(ResourceProvider.class), Mockito.any(ResourceProvider.class), Mockito.any());
+    }
+
+    /**
+     * Returns a bundle entry like URL that serves the content
+     */
+    private static URL entry(String path, String content) throws MalformedURLException {
+        return new URL("bundle", "1.0", -1, path, new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL u) {
+                return new URLConnection(u) {
+                    @Override
+                    public void connect() {
+                        // nothing to connect to
+                    }
+
+                    @Override
+                    public InputStream getInputStream() {
+                        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+                    }
+                };
+            }
+        });
+    }
+
+    private static Resource mockFile(long lastModified) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(lastModified);
+        Resource file = Mockito.mock(Resource.class);
+        Mockito.when(file.getValueMap())
+                .thenReturn(new ValueMapDecorator(Map.of("jcr:content/jcr:lastModified", calendar)));
+        return file;
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.EditorResources#EditorResources(org.apache.sling.api.resource.ResourceResolverFactory, org.osgi.framework.BundleContext, org.apache.sling.starter.access.impl.EditorResources.Config)}.
+     */
+    @Test
+    void testRepositoryMode() throws IOException {
+        List<URL> entries = List.of(
+                entry("/editor-content/content/starter/access/", ""),
+                entry("/editor-content/content/starter/access/acl.js", "var acl;"),
+                entry("/editor-content/content/starter/access/ace.js", "var ace;"),
+                entry("/editor-content/content/starter/access/acl.css", "a{}"));
+        Mockito.when(bundle.findEntries(EditorResources.CONTENT_FOLDER, "*", true))
+                .thenAnswer(inv -> Collections.enumeration(entries));
+        Resource parent = Mockito.mock(Resource.class);
+        Mockito.when(resolver.getResource("/content/starter/access")).thenReturn(parent);
+        Resource current = mockFile(3000L);
+        Mockito.when(resolver.getResource("/content/starter/access/acl.js")).thenReturn(current);
+        Resource stale = mockFile(1000L);
+        Mockito.when(resolver.getResource("/content/starter/access/acl.css")).thenReturn(stale);
+        Resource file = Mockito.mock(Resource.class);
+        Mockito.doReturn(file).when(resolver).create(Mockito.eq(parent), Mockito.anyString(), Mockito.anyMap());
+
+        new EditorResources(factory, bundleContext, config(EditorResources.MODE_REPOSITORY));
+        Mockito.verify(bundleContext, Mockito.never())
+                .registerService(
+                        Mockito.eq(ResourceProvider.class), Mockito.any(ResourceProvider.class), Mockito.any());
+        Mockito.verify(resolver).create(parent, "ace.js", Map.of("jcr:primaryType", "nt:file"));
+        Mockito.verify(resolver).create(parent, "acl.css", Map.of("jcr:primaryType", "nt:file"));
+        Mockito.verify(resolver, Mockito.never()).create(parent, "acl.js", Map.of("jcr:primaryType", "nt:file"));
+        Mockito.verify(resolver).delete(stale);
+        Mockito.verify(resolver, Mockito.times(2))
+                .create(
+                        Mockito.eq(file),
+                        Mockito.eq("jcr:content"),
+                        Mockito.argThat(
+                                content -> content != null && "nt:resource".equals(content.get("jcr:primaryType"))));
+        Mockito.verify(resolver).commit();
+    }
+}
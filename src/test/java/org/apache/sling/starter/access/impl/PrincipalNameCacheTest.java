@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.RepositoryException;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.principal.GroupPrincipal;
+import org.apache.jackrabbit.api.security.principal.PrincipalIterator;
+import org.apache.jackrabbit.api.security.principal.PrincipalManager;
+import org.apache.jackrabbit.commons.iterator.RangeIteratorAdapter;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.starter.access.impl.PrincipalNameCache.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrincipalNameCacheTest {
+
+    private PrincipalNameCache cache;
+
+    private static class TestPrincipalIterator extends RangeIteratorAdapter implements PrincipalIterator {
+        TestPrincipalIterator(Principal... principals) {
+            super(Arrays.asList(principals));
+        }
+
+        @Override
+        public Principal nextPrincipal() {
+            return (Principal) next();
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() throws LoginException, RepositoryException {
+        ResourceResolverFactory rrf = Mockito.mock(ResourceResolverFactory.class);
+        ResourceResolver rr = Mockito.mock(ResourceResolver.class);
+        Mockito.when(rrf.getServiceResourceResolver(ArgumentMatchers.any())).thenReturn(rr);
+        JackrabbitSession session = Mockito.mock(JackrabbitSession.class);
+        Mockito.when(rr.adaptTo(javax.jcr.Session.class)).thenReturn(session);
+        GroupPrincipal group = Mockito.mock(GroupPrincipal.class);
+        Mockito.when(group.getName()).thenReturn("testGroup1");
+        PrincipalManager principalManager = Mockito.mock(PrincipalManager.class);
+        Mockito.when(session.getPrincipalManager()).thenReturn(principalManager);
+        Mockito.when(principalManager.getPrincipals(PrincipalManager.SEARCH_TYPE_ALL))
+                .thenAnswer(invocation -> new TestPrincipalIterator(
+                        () -> "testUser2", () -> "TestUser1", group, () -> "admin", () -> "anonymous"));
+
+        cache = new PrincipalNameCache(rrf, Mockito.mock(PrincipalNameCache.Config.class));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalNameCache#run()}.
+     */
+    @Test
+    void testRun() {
+        assertEquals(0, cache.getSnapshot().size());
+        cache.run();
+        assertEquals(5, cache.getSnapshot().size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalNameCache#find(String, int)}.
+     */
+    @Test
+    void testFind() {
+        cache.run();
+
+        List<Suggestion> found = cache.find("test", 10);
+        assertEquals(
+                List.of("testGroup1", "TestUser1", "testUser2"),
+                found.stream().map(Suggestion::getName).toList());
+        assertTrue(found.get(0).isGroup());
+        assertFalse(found.get(1).isGroup());
+
+        // case insensitive
+        assertEquals(
+                List.of("TestUser1", "testUser2"),
+                cache.find("TESTU", 10).stream().map(Suggestion::getName).toList());
+
+        // limited
+        assertEquals(2, cache.find("test", 2).size());
+
+        // exact match
+        assertEquals(
+                List.of("admin"),
+                cache.find("admin", 10).stream().map(Suggestion::getName).toList());
+
+        // filtered
+        assertEquals(
+                List.of("testGroup1", "testUser2"),
+                cache.find("test", 10, name -> !name.equals("TestUser1")).stream()
+                        .map(Suggestion::getName)
+                        .toList());
+
+        // no matches
+        assertTrue(cache.find("zzz", 10).isEmpty());
+        assertTrue(cache.find("", 10).isEmpty());
+        assertTrue(cache.find("test", 0).isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalNameCache#run()}
+     * when the service user is not available.
+     */
+    @Test
+    void testRunWithoutServiceUser() throws LoginException {
+        ResourceResolverFactory rrf = Mockito.mock(ResourceResolverFactory.class);
+        Mockito.when(rrf.getServiceResourceResolver(ArgumentMatchers.any())).thenThrow(new LoginException());
+        PrincipalNameCache other = new PrincipalNameCache(rrf, Mockito.mock(PrincipalNameCache.Config.class));
+        other.run();
+        assertTrue(other.find("test", 10).isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalNameCache#PrincipalNameCache(ResourceResolverFactory, PrincipalNameCache.Config)}.
+     */
+    @Test
+    void testDescriptorSchedulesRefresh() throws Exception {
+        Map<String, String> properties = new HashMap<>();
+        try (InputStream in = getClass()
+                .getResourceAsStream("/OSGI-INF/org.apache.sling.starter.access.impl.PrincipalNameCache.xml")) {
+            assertNotNull(in, "generated component descriptor");
+            NodeList nodes = DocumentBuilderFactory.newInstance()
+                    .newDocumentBuilder()
+                    .parse(in)
+                    .getElementsByTagName("property");
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Element property = (Element) nodes.item(i);
+                properties.put(
+                        property.getAttribute("name"),
+                        property.getAttribute("type") + ":" + property.getAttribute("value"));
+            }
+        }
+        // the whiteboard ignores a Runnable without a period or an expression
+        assertEquals("Long:300", properties.get("scheduler.period"));
+        assertEquals("Boolean:false", properties.get("scheduler.concurrent"));
+    }
+}
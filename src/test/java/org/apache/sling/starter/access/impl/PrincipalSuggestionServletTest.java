@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.principal.PrincipalManager;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.jcr.jackrabbit.accessmanager.PrivilegesInfo;
+import org.apache.sling.starter.access.impl.PrincipalNameCache.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrincipalSuggestionServletTest {
+
+    private PrincipalNameCache cache;
+    private PrincipalSuggestionServlet servlet;
+    private SlingJakartaHttpServletRequest request;
+    private SlingJakartaHttpServletResponse response;
+    private StringWriter output;
+    private Node node;
+    private PrincipalManager principalManager;
+
+    @BeforeEach
+    void beforeEach() throws IOException, RepositoryException {
+        cache = Mockito.mock(PrincipalNameCache.class);
+        servlet = new PrincipalSuggestionServlet(cache);
+        servlet.privilegesInfo = Mockito.mock(PrivilegesInfo.class);
+
+        request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        response = Mockito.mock(SlingJakartaHttpServletResponse.class);
+        Resource resource = Mockito.mock(Resource.class);
+        node = Mockito.mock(Node.class);
+        Mockito.when(request.getResource()).thenReturn(resource);
+        Mockito.when(resource.adaptTo(Node.class)).thenReturn(node);
+        ResourceResolver rr = Mockito.mock(ResourceResolver.class);
+        JackrabbitSession session = Mockito.mock(JackrabbitSession.class);
+        principalManager = Mockito.mock(PrincipalManager.class);
+        Mockito.when(request.getResourceResolver()).thenReturn(rr);
+        Mockito.when(rr.adaptTo(Session.class)).thenReturn(session);
+        Mockito.when(session.getPrincipalManager()).thenReturn(principalManager);
+        output = new StringWriter();
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(output));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalSuggestionServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}.
+     */
+    @Test
+    void testDoGet() throws ServletException, IOException {
+        Mockito.when(servlet.privilegesInfo.canReadAccessControl(node)).thenReturn(true);
+        Mockito.when(request.getParameter("q")).thenReturn("test");
+        Mockito.when(cache.find(
+                        ArgumentMatchers.eq("test"),
+                        ArgumentMatchers.eq(PrincipalSuggestionServlet.DEFAULT_LIMIT),
+                        ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    Predicate<String> visible = invocation.getArgument(2);
+                    return Stream.of(
+                                    new Suggestion("testGroup1", true),
+                                    new Suggestion("testHidden", false),
+                                    new Suggestion("testUser1", false))
+                            .filter(suggestion -> visible.test(suggestion.getName()))
+                            .toList();
+                });
+        Mockito.when(principalManager.hasPrincipal("testGroup1")).thenReturn(true);
+        Mockito.when(principalManager.hasPrincipal("testUser1")).thenReturn(true);
+
+        servlet.doGet(request, response);
+        assertEquals(
+                "[{\"name\":\"testGroup1\",\"group\":true},{\"name\":\"testUser1\",\"group\":false}]",
+                output.toString());
+        Mockito.verify(response).setContentType("application/json");
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalSuggestionServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * without a prefix.
+     */
+    @Test
+    void testDoGetWithoutPrefix() throws ServletException, IOException {
+        Mockito.when(servlet.privilegesInfo.canReadAccessControl(node)).thenReturn(true);
+        servlet.doGet(request, response);
+        assertEquals("[]", output.toString());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalSuggestionServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * without access to the access control content.
+     */
+    @Test
+    void testDoGetNotAllowed() throws ServletException, IOException {
+        Mockito.when(servlet.privilegesInfo.canReadAccessControl(node)).thenReturn(false);
+        servlet.doGet(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+
+        Mockito.when(request.getRemoteUser()).thenReturn("testUser1");
+        servlet.doGet(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_FORBIDDEN);
+        Mockito.verifyNoInteractions(cache);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalSuggestionServlet#doGet(SlingJakartaHttpServletRequest, SlingJakartaHttpServletResponse)}
+     * for a resource that is not a node.
+     */
+    @Test
+    void testDoGetWithoutNode() throws ServletException, IOException {
+        Mockito.when(request.getResource().adaptTo(Node.class)).thenReturn(null);
+        servlet.doGet(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+        Mockito.verifyNoInteractions(servlet.privilegesInfo, cache);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrincipalSuggestionServlet#parseLimit(String)}.
+     */
+    @Test
+    void testParseLimit() {
+        assertEquals(PrincipalSuggestionServlet.DEFAULT_LIMIT, PrincipalSuggestionServlet.parseLimit(null));
+        assertEquals(PrincipalSuggestionServlet.DEFAULT_LIMIT, PrincipalSuggestionServlet.parseLimit("abc"));
+        assertEquals(5, PrincipalSuggestionServlet.parseLimit("5"));
+        assertEquals(PrincipalSuggestionServlet.MAX_LIMIT, PrincipalSuggestionServlet.parseLimit("1000"));
+    }
+}
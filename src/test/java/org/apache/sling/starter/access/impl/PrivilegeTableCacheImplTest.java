@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.impl;
+
+import javax.jcr.security.Privilege;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jackrabbit.oak.spi.security.privilege.PrivilegeConstants;
+import org.apache.sling.starter.access.models.PrivilegeTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PrivilegeTableCacheImplTest {
+
+    private PrivilegeTableCacheImpl cache;
+
+    private Map<String, Privilege> privileges;
+
+    private static Privilege mockPrivilege(String name, Privilege... aggregatePrivileges) {
+        Privilege privilege = Mockito.mock(Privilege.class);
+        Mockito.when(privilege.getName()).thenReturn(name);
+        Mockito.when(privilege.getAggregatePrivileges()).thenReturn(aggregatePrivileges);
+        return privilege;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        cache = new PrivilegeTableCacheImpl();
+
+        Privilege repReadNodes = mockPrivilege(PrivilegeConstants.REP_READ_NODES);
+        Privilege repReadProperties = mockPrivilege(PrivilegeConstants.REP_READ_PROPERTIES);
+        Privilege jcrRead = mockPrivilege(PrivilegeConstants.JCR_READ, repReadNodes, repReadProperties);
+        Privilege jcrWrite = mockPrivilege(PrivilegeConstants.JCR_WRITE);
+        // the aggregates are not returned in display order
+        Privilege jcrAll =
+                mockPrivilege(PrivilegeConstants.JCR_ALL, repReadProperties, jcrWrite, repReadNodes, jcrRead);
+        privileges = Map.of(
+                PrivilegeConstants.JCR_ALL, jcrAll,
+                PrivilegeConstants.JCR_READ, jcrRead,
+                PrivilegeConstants.REP_READ_NODES, repReadNodes,
+                PrivilegeConstants.REP_READ_PROPERTIES, repReadProperties,
+                PrivilegeConstants.JCR_WRITE, jcrWrite);
+    }
+
+    private static List<String> displayOrder() {
+        return List.of(
+                PrivilegeConstants.JCR_ALL,
+                PrivilegeConstants.JCR_READ,
+                PrivilegeConstants.REP_READ_NODES,
+                PrivilegeConstants.REP_READ_PROPERTIES,
+                PrivilegeConstants.JCR_WRITE);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrivilegeTableCacheImpl#toTable(java.util.List, java.util.Map)}.
+     */
+    @Test
+    void testToTable() {
+        PrivilegeTable table = PrivilegeTableCacheImpl.toTable(displayOrder(), privileges);
+        assertArrayEquals(new int[] {0, 4, 6, 6, 6, 6}, table.aggregateOffsets());
+        // sorted into display order
+        assertArrayEquals(new int[] {1, 2, 3, 4, 2, 3}, table.aggregateIndices());
+        assertArrayEquals(new int[] {0, 0, 1, 3, 5, 6}, table.containerOffsets());
+        assertArrayEquals(new int[] {0, 0, 1, 0, 1, 0}, table.containerIndices());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrivilegeTableCacheImpl#toTable(java.util.List, java.util.Map)}.
+     */
+    @Test
+    void testToTableSkipsUnlistedPrivileges() {
+        // only the privileges in the list can be referenced by their index
+        PrivilegeTable table = PrivilegeTableCacheImpl.toTable(
+                List.of(PrivilegeConstants.JCR_ALL, PrivilegeConstants.JCR_WRITE, "unknown:privilege"), privileges);
+        assertArrayEquals(new int[] {0, 1, 1, 1}, table.aggregateOffsets());
+        assertArrayEquals(new int[] {1}, table.aggregateIndices());
+        assertArrayEquals(new int[] {0, 0, 1, 1}, table.containerOffsets());
+        assertArrayEquals(new int[] {0}, table.containerIndices());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrivilegeTableCacheImpl#getTable(java.util.List, java.util.Map)}.
+     */
+    @Test
+    void testGetTable() {
+        PrivilegeTable table = cache.getTable(new ArrayList<>(displayOrder()), privileges);
+        assertSame(table, cache.getTable(displayOrder(), privileges));
+        assertEquals(1, cache.size());
+
+        // a different list of names is a different table
+        List<String> reversed = new ArrayList<>(displayOrder());
+        Collections.reverse(reversed);
+        assertNotSame(table, cache.getTable(reversed, privileges));
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.impl.PrivilegeTableCacheImpl#getTable(java.util.List, java.util.Map)}.
+     */
+    @Test
+    void testGetTableIsBounded() {
+        for (int i = 0; i < PrivilegeTableCacheImpl.MAX_ENTRIES + 5; i++) {
+            cache.getTable(List.of("test:privilege" + i), privileges);
+        }
+        assertEquals(5, cache.size());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.index.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sling.starter.access.index.AceSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AclIndexDataTest {
+
+    private AclIndexData data;
+
+    @BeforeEach
+    void beforeEach() {
+        data = new AclIndexData();
+        Map<String, Integer> flags = AclIndexData.newFlagsMap();
+        AclIndexData.addFlags(flags, "testUser1", AclIndexData.FLAG_ALLOW);
+        AclIndexData.addFlags(flags, "testGroup1", AclIndexData.FLAG_ALLOW);
+        AclIndexData.addFlags(flags, "testGroup1", AclIndexData.FLAG_DENY);
+        data.update("/content/test1", flags);
+        data.update("/content/test2", Map.of("testUser1", AclIndexData.FLAG_DENY));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexData#getEntries(String)}.
+     */
+    @Test
+    void testGetEntries() {
+        List<AceSummary> entries = data.getEntries("/content/test1");
+        assertEquals(2, entries.size());
+        assertEquals("testUser1", entries.get(0).getPrincipalName());
+        assertTrue(entries.get(0).isAllow());
+        assertFalse(entries.get(0).isDeny());
+        assertEquals("testGroup1", entries.get(1).getPrincipalName());
+        assertTrue(entries.get(1).isAllow());
+        assertTrue(entries.get(1).isDeny());
+
+        assertTrue(data.getEntries("/content/other").isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexData#getPaths(String)}.
+     */
+    @Test
+    void testGetPaths() {
+        assertEquals(Set.of("/content/test1", "/content/test2"), data.getPaths("testUser1"));
+        assertEquals(Set.of("/content/test1"), data.getPaths("testGroup1"));
+        assertTrue(data.getPaths("other").isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexData#update(String, Map)}.
+     */
+    @Test
+    void testUpdate() {
+        data.update("/content/test1", Map.of("testGroup1", AclIndexData.FLAG_DENY));
+        assertEquals(Set.of("/content/test2"), data.getPaths("testUser1"));
+        List<AceSummary> entries = data.getEntries("/content/test1");
+        assertEquals(1, entries.size());
+        assertFalse(entries.get(0).isAllow());
+        assertTrue(entries.get(0).isDeny());
+        assertEquals(2, data.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexData#remove(String)}.
+     */
+    @Test
+    void testRemove() {
+        data.remove("/content/test1");
+        assertEquals(1, data.size());
+        assertEquals(Set.of("/content/test2"), data.getPaths("testUser1"));
+        assertTrue(data.getPaths("testGroup1").isEmpty());
+        assertTrue(data.getEntries("/content/test1").isEmpty());
+
+        // the released slot is reused
+        data.update("/content/test3", Map.of("testGroup1", AclIndexData.FLAG_ALLOW));
+        assertEquals(Set.of("/content/test3"), data.getPaths("testGroup1"));
+        assertEquals(2, data.size());
+    }
+
+    /**
+     * Test that the storage grows beyond the initial capacity
+     */
+    @Test
+    void testGrow() {
+        for (int i = 0; i < 100; i++) {
+            data.update(
+                    "/content/grow" + i, Map.of("user" + i, AclIndexData.FLAG_ALLOW, "all", AclIndexData.FLAG_DENY));
+        }
+        assertEquals(102, data.size());
+        assertEquals(100, data.getPaths("all").size());
+        assertEquals(Set.of("/content/grow42"), data.getPaths("user42"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexData#clear()}.
+     */
+    @Test
+    void testClear() {
+        data.clear();
+        assertEquals(0, data.size());
+        assertTrue(data.getPaths("testUser1").isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexData#removeTree(String)}.
+     */
+    @Test
+    void testRemoveTree() {
+        data.update("/content/test1/child", Map.of("testUser2", AclIndexData.FLAG_ALLOW));
+        data.update("/content/test10", Map.of("testUser2", AclIndexData.FLAG_ALLOW));
+        assertEquals(2, data.removeTree("/content/test1"));
+        assertTrue(data.getEntries("/content/test1").isEmpty());
+        assertTrue(data.getEntries("/content/test1/child").isEmpty());
+        // only a sibling with the same prefix
+        assertEquals(Set.of("/content/test10"), data.getPaths("testUser2"));
+        assertEquals(Set.of("/content/test2"), data.getPaths("testUser1"));
+
+        assertEquals(0, data.removeTree("/content/other"));
+        assertEquals(2, data.removeTree("/"));
+        assertEquals(0, data.size());
+    }
+
+    /**
+     * Test that the principals without entries are released
+     */
+    @Test
+    void testReleasePrincipals() {
+        assertEquals(2, data.principalSize());
+        data.remove("/content/test1");
+        // testGroup1 only had entries there
+        assertEquals(1, data.principalSize());
+        for (int i = 0; i < 100; i++) {
+            data.update("/content/churn", Map.of("user" + i, AclIndexData.FLAG_ALLOW));
+        }
+        assertEquals(2, data.principalSize());
+        assertEquals(Set.of("/content/churn"), data.getPaths("user99"));
+        assertTrue(data.getPaths("user98").isEmpty());
+        assertEquals(Set.of("/content/test2"), data.getPaths("testUser1"));
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.index.impl;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.Workspace;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.ObservationManager;
+import javax.jcr.query.Query;
+import javax.jcr.query.QueryManager;
+import javax.jcr.query.QueryResult;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.apache.jackrabbit.commons.iterator.EventIteratorAdapter;
+import org.apache.jackrabbit.commons.iterator.NodeIteratorAdapter;
+import org.apache.jackrabbit.oak.spi.security.authorization.accesscontrol.AccessControlConstants;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.starter.access.index.AceSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AclIndexImplTest {
+
+    private Session session;
+    private Node policyNode;
+    private AclIndexImpl index;
+
+    @BeforeEach
+    void beforeEach() throws LoginException, RepositoryException {
+        ResourceResolverFactory rrf = Mockito.mock(ResourceResolverFactory.class);
+        ResourceResolver rr = Mockito.mock(ResourceResolver.class);
+        Mockito.when(rrf.getServiceResourceResolver(ArgumentMatchers.any())).thenReturn(rr);
+        session = Mockito.mock(Session.class);
+        Mockito.when(rr.adaptTo(Session.class)).thenReturn(session);
+        Mockito.when(session.isLive()).thenReturn(true);
+        Workspace workspace = Mockito.mock(Workspace.class);
+        Mockito.when(session.getWorkspace()).thenReturn(workspace);
+        Mockito.when(workspace.getObservationManager()).thenReturn(Mockito.mock(ObservationManager.class));
+
+        Node contentNode = Mockito.mock(Node.class);
+        Mockito.when(contentNode.getPath()).thenReturn("/content/test1");
+        policyNode = mockPolicyNode(
+                contentNode,
+                mockAce("testUser1", AccessControlConstants.NT_REP_GRANT_ACE),
+                mockAce("testGroup1", AccessControlConstants.NT_REP_DENY_ACE));
+
+        QueryManager queryManager = Mockito.mock(QueryManager.class);
+        Mockito.when(workspace.getQueryManager()).thenReturn(queryManager);
+        Query query = Mockito.mock(Query.class);
+        Mockito.when(queryManager.createQuery(ArgumentMatchers.anyString(), ArgumentMatchers.eq(Query.JCR_SQL2)))
+                .thenReturn(query);
+        QueryResult queryResult = Mockito.mock(QueryResult.class);
+        Mockito.when(query.execute()).thenReturn(queryResult);
+        Mockito.when(queryResult.getNodes()).thenAnswer(invocation -> nodeIterator(policyNode));
+
+        AclIndexImpl.Config config = Mockito.mock(AclIndexImpl.Config.class);
+        Mockito.when(config.batch_size()).thenReturn(1);
+        Mockito.when(config.batch_pause_ms()).thenReturn(0L);
+        index = new AclIndexImpl(rrf, config);
+    }
+
+    @AfterEach
+    void afterEach() {
+        index.deactivate();
+    }
+
+    private static NodeIterator nodeIterator(Node... nodes) {
+        Iterator<Node> it = Arrays.asList(nodes).iterator();
+        return new NodeIteratorAdapter(it);
+    }
+
+    private Node mockPolicyNode(Node parent, Node... aces) throws RepositoryException {
+        Node node = Mockito.mock(Node.class);
+        Mockito.when(node.getName()).thenReturn(AccessControlConstants.REP_POLICY);
+        Mockito.when(node.getParent()).thenReturn(parent);
+        Mockito.when(node.getNodes()).thenAnswer(invocation -> nodeIterator(aces));
+        return node;
+    }
+
+    private Node mockAce(String principalName, String nodeType) throws RepositoryException {
+        Node ace = Mockito.mock(Node.class);
+        Property property = Mockito.mock(Property.class);
+        Mockito.when(property.getString()).thenReturn(principalName);
+        Mockito.when(ace.hasProperty(AccessControlConstants.REP_PRINCIPAL_NAME)).thenReturn(true);
+        Mockito.when(ace.getProperty(AccessControlConstants.REP_PRINCIPAL_NAME)).thenReturn(property);
+        Mockito.when(ace.isNodeType(nodeType)).thenReturn(true);
+        return ace;
+    }
+
+    private void waitUntilReady() throws InterruptedException {
+        for (int i = 0; i < 100 && !index.isReady(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(index.isReady());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#traverse(Session, int, long)}.
+     */
+    @Test
+    void testTraverse() throws InterruptedException {
+        waitUntilReady();
+        List<AceSummary> entries = index.getEntries("/content/test1");
+        assertEquals(2, entries.size());
+        assertEquals("testUser1", entries.get(0).getPrincipalName());
+        assertTrue(entries.get(0).isAllow());
+        assertEquals("testGroup1", entries.get(1).getPrincipalName());
+        assertTrue(entries.get(1).isDeny());
+        assertEquals(Set.of("/content/test1"), index.getPaths("testUser1"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#reindex(Session, String)}.
+     */
+    @Test
+    void testReindex() throws InterruptedException, RepositoryException {
+        waitUntilReady();
+
+        // entry for the user was removed
+        Node contentNode = policyNode.getParent();
+        Node changedPolicyNode =
+                mockPolicyNode(contentNode, mockAce("testGroup1", AccessControlConstants.NT_REP_GRANT_ACE));
+        Mockito.when(session.nodeExists("/content/test1/rep:policy")).thenReturn(true);
+        Mockito.when(session.getNode("/content/test1/rep:policy")).thenReturn(changedPolicyNode);
+        index.reindex(session, "/content/test1");
+        assertTrue(index.getPaths("testUser1").isEmpty());
+        assertEquals(Set.of("/content/test1"), index.getPaths("testGroup1"));
+        assertTrue(index.getEntries("/content/test1").get(0).isAllow());
+
+        // whole policy was removed
+        Mockito.when(session.nodeExists("/content/test1/rep:policy")).thenReturn(false);
+        index.reindex(session, "/content/test1");
+        assertTrue(index.getEntries("/content/test1").isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#reindex(Session, java.util.Collection)}.
+     */
+    @Test
+    void testReindexPaths() throws InterruptedException, RepositoryException {
+        waitUntilReady();
+
+        Mockito.when(session.nodeExists("/content/test1/rep:policy")).thenReturn(false);
+        index.reindex(session, List.of("/content/test1"));
+        Mockito.verify(session, Mockito.atLeast(2)).refresh(false);
+        assertTrue(index.getEntries("/content/test1").isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#reindex(Session, java.util.Collection)}.
+     */
+    @Test
+    void testReindexClosedSession() throws InterruptedException, RepositoryException {
+        waitUntilReady();
+
+        Mockito.when(session.isLive()).thenReturn(false);
+        index.reindex(session, List.of("/content/test1"));
+        Mockito.verify(session, Mockito.never()).nodeExists(ArgumentMatchers.anyString());
+        assertEquals(2, index.getEntries("/content/test1").size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#AclIndexImpl(ResourceResolverFactory, AclIndexImpl.Config)}.
+     */
+    @Test
+    void testNoSession() throws LoginException {
+        ResourceResolverFactory rrf = Mockito.mock(ResourceResolverFactory.class);
+        ResourceResolver rr = Mockito.mock(ResourceResolver.class);
+        Mockito.when(rrf.getServiceResourceResolver(ArgumentMatchers.any())).thenReturn(rr);
+        AclIndexImpl noSessionIndex = new AclIndexImpl(rrf, Mockito.mock(AclIndexImpl.Config.class));
+        Mockito.verify(rr).close();
+        assertFalse(noSessionIndex.isReady());
+        noSessionIndex.deactivate();
+    }
+
+    private static EventIterator events(int type, String path) throws RepositoryException {
+        Event event = Mockito.mock(Event.class);
+        Mockito.when(event.getType()).thenReturn(type);
+        Mockito.when(event.getPath()).thenReturn(path);
+        return new EventIteratorAdapter(List.of(event).iterator());
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#onRemoval(EventIterator)}.
+     */
+    @Test
+    void testOnRemoval() throws InterruptedException, RepositoryException {
+        waitUntilReady();
+
+        // an ancestor of the access controlled node was removed
+        index.onRemoval(events(Event.NODE_REMOVED, "/content"));
+        waitUntil(() -> index.getEntries("/content/test1").isEmpty());
+        assertTrue(index.getPaths("testUser1").isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#onRemoval(EventIterator)}.
+     */
+    @Test
+    void testOnRemovalMoved() throws InterruptedException, RepositoryException {
+        waitUntilReady();
+
+        Node movedNode = Mockito.mock(Node.class);
+        Mockito.when(movedNode.getPath()).thenReturn("/moved/test1");
+        policyNode = mockPolicyNode(movedNode, mockAce("testUser1", AccessControlConstants.NT_REP_GRANT_ACE));
+        index.onRemoval(events(Event.NODE_REMOVED, "/content/test1"));
+        index.onRemoval(events(Event.NODE_MOVED, "/moved/test1"));
+        waitUntil(() -> !index.getEntries("/moved/test1").isEmpty());
+        assertTrue(index.getEntries("/content/test1").isEmpty());
+        assertEquals(Set.of("/moved/test1"), index.getPaths("testUser1"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#toAccessControlledPath(String)}.
+     */
+    @Test
+    void testToAccessControlledPath() {
+        assertEquals("/content/test1", AclIndexImpl.toAccessControlledPath("/content/test1/rep:policy"));
+        assertEquals("/content/test1", AclIndexImpl.toAccessControlledPath("/content/test1/rep:policy/allow1"));
+        assertEquals(
+                "/content/test1",
+                AclIndexImpl.toAccessControlledPath("/content/test1/rep:policy/allow1/rep:privileges"));
+        assertEquals("/", AclIndexImpl.toAccessControlledPath("/rep:policy/allow"));
+        assertNull(AclIndexImpl.toAccessControlledPath("/content/test1/child"));
+        assertNull(AclIndexImpl.toAccessControlledPath("/content/test1/rep:policyOther"));
+        assertNull(AclIndexImpl.toAccessControlledPath(null));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.index.impl.AclIndexImpl#isReady()}.
+     */
+    @Test
+    void testIsReady() throws InterruptedException {
+        waitUntilReady();
+        index.deactivate();
+        assertFalse(index.isReady());
+    }
+}
@@ -38,8 +38,10 @@ import java.util.stream.Stream;
 
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
+import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 import org.apache.jackrabbit.api.JackrabbitSession;
 import org.apache.jackrabbit.api.JackrabbitWorkspace;
@@ -55,10 +57,12 @@ import org.apache.jackrabbit.oak.spi.security.authorization.restriction.Restrict
 import org.apache.jackrabbit.oak.spi.security.privilege.PrivilegeConstants;
 import org.apache.sling.api.request.RequestParameter;
 import org.apache.sling.api.request.RequestParameterMap;
+import org.apache.sling.api.request.RequestPathInfo;
 import org.apache.sling.api.request.builder.impl.RequestParameterImpl;
 import org.apache.sling.api.request.builder.impl.RequestParameterMapImpl;
 import org.apache.sling.jcr.jackrabbit.accessmanager.GetAce;
 import org.apache.sling.jcr.jackrabbit.accessmanager.GetAcl;
+import org.apache.sling.starter.access.impl.PrivilegeTableCacheImpl;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -71,6 +75,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AceTest extends AccessFormPageTest {
@@ -139,6 +144,7 @@ class AceTest extends AccessFormPageTest {
 
         acePage.getAcl = Mockito.mock(GetAcl.class);
         acePage.getAce = Mockito.mock(GetAce.class);
+        acePage.privilegeTableCache = new PrivilegeTableCacheImpl();
 
         jcrSession = Mockito.mock(JackrabbitSession.class);
         Mockito.when(acePage.request.getResourceResolver().adaptTo(Session.class))
@@ -238,6 +244,20 @@ class AceTest extends AccessFormPageTest {
         assertFalse(acePage.getIsInvalidPrincipal());
     }
 
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.Ace#getResolvedPrincipal()}.
+     */
+    @Test
+    void testGetResolvedPrincipal() throws RepositoryException {
+        super.testInit();
+        ResolvedPrincipal resolved = acePage.getResolvedPrincipal();
+        assertTrue(resolved.isExists());
+        assertEquals("testUser1", resolved.getPrincipalId());
+        // the same lookup is shared by the other consumers
+        assertFalse(acePage.getIsInvalidPrincipal());
+        assertSame(resolved, acePage.getResolvedPrincipal());
+    }
+
     /**
      * Test method for {@link org.apache.sling.starter.access.models.Ace#getAcePath()}.
      */
@@ -484,6 +504,125 @@ class AceTest extends AccessFormPageTest {
         assertTrue(json.containsKey(PrivilegeConstants.JCR_READ));
     }
 
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.Ace#isCompact()}.
+     */
+    @Test
+    void testIsCompact() {
+        RequestPathInfo requestPathInfo = Mockito.mock(RequestPathInfo.class);
+        Mockito.when(acePage.request.getRequestPathInfo()).thenReturn(requestPathInfo);
+        Mockito.when(requestPathInfo.getSelectors()).thenReturn(new String[] {"ace"});
+        assertFalse(acePage.isCompact());
+        Mockito.when(requestPathInfo.getSelectors()).thenReturn(new String[] {"ace", "compact"});
+        assertTrue(acePage.isCompact());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.Ace#getPrivilegesAsCompactJSON()}.
+     * @throws RepositoryException
+     */
+    @Test
+    void testGetPrivilegesAsCompactJSON() throws RepositoryException {
+        mockPersistedPrivileges(ACE_JSON_WITH_RESTRICTIONS);
+        String compactJSON = acePage.getPrivilegesAsCompactJSON();
+        assertNotNull(compactJSON);
+        JsonObject json;
+        try (StringReader strReader = new StringReader(compactJSON);
+                JsonReader jsonReader = Json.createReader(strReader)) {
+            json = jsonReader.readObject();
+        }
+        JsonArray names = json.getJsonArray("names");
+        assertEquals(2, names.size());
+        int readIdx = names.getString(0).equals(PrivilegeConstants.JCR_READ) ? 0 : 1;
+        int writeIdx = 1 - readIdx;
+        assertEquals(PrivilegeConstants.JCR_WRITE, names.getString(writeIdx));
+
+        // jcr:all is not one of the privileges, so there is no parent to point to
+        assertEquals(-1, json.getJsonArray("parents").getInt(readIdx));
+        assertEquals(1, json.getJsonArray("depths").getInt(readIdx));
+        assertEquals(
+                Ace.STATE_GRANTED | Ace.STATE_ALLOW_EXISTS,
+                json.getJsonArray("states").getInt(readIdx));
+        assertEquals(
+                Ace.STATE_DENIED | Ace.STATE_DENY_EXISTS,
+                json.getJsonArray("states").getInt(writeIdx));
+
+        JsonArray restrictionNames = json.getJsonArray("restrictionNames");
+        JsonArray restrictions = json.getJsonArray("restrictions");
+        assertEquals(2, restrictions.size());
+        for (JsonValue value : restrictions) {
+            JsonArray entry = value.asJsonArray();
+            String restrictionName = restrictionNames.getString(entry.getInt(2));
+            if (entry.getInt(0) == readIdx) {
+                assertEquals(Ace.RESTRICTION_EXISTS, entry.getInt(1));
+                assertEquals(AccessControlConstants.REP_NT_NAMES, restrictionName);
+                assertEquals(List.of("name1", "name2"), entry.getJsonArray(3).getValuesAs(JsonString::getString));
+            } else {
+                assertEquals(Ace.RESTRICTION_DENY | Ace.RESTRICTION_EXISTS, entry.getInt(1));
+                assertEquals(AccessControlConstants.REP_GLOB, restrictionName);
+                assertEquals(List.of("glob1"), entry.getJsonArray(3).getValuesAs(JsonString::getString));
+            }
+        }
+        assertEquals(0, json.getJsonArray("deletes").size());
+
+        // neither aggregates the other
+        assertEquals(List.of(0, 0, 0), json.getJsonArray("aggregateOffsets").getValuesAs(JsonNumber::intValue));
+        assertEquals(0, json.getJsonArray("aggregateIndices").size());
+        assertEquals(List.of(0, 0, 0), json.getJsonArray("containerOffsets").getValuesAs(JsonNumber::intValue));
+        assertEquals(0, json.getJsonArray("containerIndices").size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.Ace#getPrivilegeTableAsJSON()}.
+     * @throws RepositoryException
+     */
+    @Test
+    void testGetPrivilegeTableAsJSON() throws RepositoryException {
+        // mock that the resource does exist so all the supported privileges are listed
+        Mockito.when(jcrSession.nodeExists(acePage.getAcePath())).thenReturn(true);
+        mockPersistedPrivileges(ACE_JSON);
+        String privilegeTableAsJSON = acePage.getPrivilegeTableAsJSON();
+        assertNotNull(privilegeTableAsJSON);
+        JsonObject json;
+        try (StringReader strReader = new StringReader(privilegeTableAsJSON);
+                JsonReader jsonReader = Json.createReader(strReader)) {
+            json = jsonReader.readObject();
+        }
+        List<String> names = json.getJsonArray("names").getValuesAs(JsonString::getString);
+        assertEquals(
+                List.of(
+                        PrivilegeConstants.JCR_ALL,
+                        PrivilegeConstants.JCR_READ,
+                        PrivilegeConstants.REP_READ_NODES,
+                        PrivilegeConstants.JCR_WRITE),
+                names);
+        List<Integer> aggregateOffsets = json.getJsonArray("aggregateOffsets").getValuesAs(JsonNumber::intValue);
+        List<Integer> aggregateIndices = json.getJsonArray("aggregateIndices").getValuesAs(JsonNumber::intValue);
+        // jcr:all aggregates jcr:read and jcr:write, jcr:read aggregates rep:readNodes
+        assertEquals(List.of(0, 2, 3, 3, 3), aggregateOffsets);
+        assertEquals(List.of(1, 3, 2), aggregateIndices);
+        List<Integer> containerOffsets = json.getJsonArray("containerOffsets").getValuesAs(JsonNumber::intValue);
+        List<Integer> containerIndices = json.getJsonArray("containerIndices").getValuesAs(JsonNumber::intValue);
+        assertEquals(List.of(0, 0, 1, 2, 3), containerOffsets);
+        assertEquals(List.of(0, 1, 0), containerIndices);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.Ace#getPrivilegesAsCompactJSON()}.
+     * @throws RepositoryException
+     */
+    @Test
+    void testGetPrivilegesAsCompactJSONEscapesScriptEnd() throws RepositoryException {
+        mockPersistedPrivileges(ACE_JSON_WITH_RESTRICTIONS.replace("glob1", "</script>"));
+        String compactJSON = acePage.getPrivilegesAsCompactJSON();
+        assertFalse(compactJSON.contains("<"));
+        assertTrue(compactJSON.contains("\\u003c/script>"));
+        try (StringReader strReader = new StringReader(compactJSON);
+                JsonReader jsonReader = Json.createReader(strReader)) {
+            assertTrue(jsonReader.readObject().toString().contains("</script>"));
+        }
+    }
+
     /**
      * Test method for {@link org.apache.sling.starter.access.models.Ace#getExistingRestrictionNamesAsJSON()}.
      * @throws RepositoryException
@@ -536,6 +675,20 @@ class AceTest extends AccessFormPageTest {
         assertEquals("first", acePage.getOrderValue());
     }
 
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.Ace#getOrderBeforePrincipal()}.
+     */
+    @Test
+    void testGetOrderBeforePrincipal() {
+        assertNull(acePage.getOrderBeforePrincipal());
+        Mockito.when(acePage.request.getParameter("order")).thenReturn("first");
+        assertNull(acePage.getOrderBeforePrincipal());
+        Mockito.when(acePage.request.getParameter("order")).thenReturn("before ");
+        assertNull(acePage.getOrderBeforePrincipal());
+        Mockito.when(acePage.request.getParameter("order")).thenReturn("before testGroup1");
+        assertEquals("testGroup1", acePage.getOrderBeforePrincipal());
+    }
+
     /**
      * Test method for {@link org.apache.sling.starter.access.models.Ace#getOrderList()}.
      * @throws RepositoryException
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.models;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import java.security.Principal;
+
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.user.Group;
+import org.apache.jackrabbit.api.security.user.UserManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResolvedPrincipalTest {
+    private JackrabbitSession jcrSession;
+    private UserManager userMgr;
+
+    @BeforeEach
+    void beforeEach() throws RepositoryException {
+        jcrSession = Mockito.mock(JackrabbitSession.class);
+        userMgr = Mockito.mock(UserManager.class);
+        Mockito.when(jcrSession.getUserManager()).thenReturn(userMgr);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.ResolvedPrincipal#resolve(javax.jcr.Session, java.lang.String)}.
+     */
+    @Test
+    void testResolveGroup() throws RepositoryException {
+        Group group = Mockito.mock(Group.class);
+        Principal principal = () -> "group1";
+        Mockito.when(group.getPrincipal()).thenReturn(principal);
+        Mockito.when(group.isGroup()).thenReturn(true);
+        Mockito.when(userMgr.getAuthorizable("group1")).thenReturn(group);
+
+        ResolvedPrincipal resolved = ResolvedPrincipal.resolve(jcrSession, "group1");
+        assertTrue(resolved.isExists());
+        assertTrue(resolved.isGroup());
+        assertEquals("group1", resolved.getPrincipalId());
+        assertSame(group, resolved.getAuthorizable());
+        assertSame(principal, resolved.getPrincipal());
+        assertEquals("group1", resolved.getPrincipalName());
+        // resolved with a single lookup
+        Mockito.verify(userMgr, Mockito.times(1)).getAuthorizable("group1");
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.ResolvedPrincipal#resolve(javax.jcr.Session, java.lang.String)}.
+     */
+    @Test
+    void testResolveNotExisting() throws RepositoryException {
+        ResolvedPrincipal resolved = ResolvedPrincipal.resolve(jcrSession, "missing1");
+        assertFalse(resolved.isExists());
+        assertFalse(resolved.isGroup());
+        assertNull(resolved.getAuthorizable());
+        assertNull(resolved.getPrincipal());
+        assertEquals("missing1", resolved.getPrincipalName());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.ResolvedPrincipal#resolve(javax.jcr.Session, java.lang.String)}.
+     */
+    @Test
+    void testResolveWithoutPrincipalId() throws RepositoryException {
+        assertFalse(ResolvedPrincipal.resolve(jcrSession, null).isExists());
+        assertFalse(ResolvedPrincipal.resolve(jcrSession, "").isExists());
+        Mockito.verifyNoInteractions(userMgr);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.ResolvedPrincipal#resolve(javax.jcr.Session, java.lang.String)}.
+     */
+    @Test
+    void testResolveWithNonJackrabbitSession() throws RepositoryException {
+        assertFalse(
+                ResolvedPrincipal.resolve(Mockito.mock(Session.class), "user1").isExists());
+        assertFalse(ResolvedPrincipal.resolve(null, "user1").isExists());
+    }
+}
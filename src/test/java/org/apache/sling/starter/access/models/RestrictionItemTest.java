@@ -38,6 +38,8 @@ import org.mockito.stubbing.Answer;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RestrictionItemTest {
@@ -135,6 +137,24 @@ class RestrictionItemTest {
         assertEquals(Arrays.asList("name1", "name2"), itemNamesRi.getValues());
     }
 
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.RestrictionItem#getRestrictionValues()}.
+     */
+    @Test
+    void testGetRestrictionValues() throws RepositoryException {
+        RestrictionValues rv = itemNamesRi.getRestrictionValues();
+        assertEquals(2, rv.size());
+        assertSame(rv.getList(), itemNamesRi.getValues());
+
+        // a conversion failure is reported when the value is read
+        Value value = Mockito.mock(Value.class);
+        Mockito.when(value.getString()).thenThrow(new RepositoryException("test"));
+        RestrictionItem globRi = createRestrictionItem(AccessControlConstants.REP_GLOB, Type.STRING, value);
+        assertThrows(RepositoryException.class, globRi::getValue);
+        assertThrows(RepositoryException.class, globRi::getValues);
+        assertNotNull(globRi.toString());
+    }
+
     /**
      * Test method for {@link org.apache.sling.starter.access.models.RestrictionItem#isExists()}.
      */
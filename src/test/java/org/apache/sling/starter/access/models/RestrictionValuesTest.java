@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.access.models;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+import javax.jcr.ValueFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.jackrabbit.value.ValueFactoryImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestrictionValuesTest {
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.RestrictionValues#of(java.lang.Object)}.
+     */
+    @Test
+    void testOf() throws RepositoryException {
+        ValueFactory vf = ValueFactoryImpl.getInstance();
+        assertEquals(List.of("glob1"), RestrictionValues.of("glob1").getList());
+        assertEquals(
+                List.of("glob1"), RestrictionValues.of(vf.createValue("glob1")).getList());
+        assertEquals(
+                List.of("name1", "name2"),
+                RestrictionValues.of(new String[] {"name1", "name2"}).getList());
+        assertEquals(
+                List.of("name1", "name2"),
+                RestrictionValues.of(new Value[] {vf.createValue("name1"), vf.createValue("name2")})
+                        .getList());
+        assertSame(RestrictionValues.EMPTY, RestrictionValues.of(null));
+        assertSame(RestrictionValues.EMPTY, RestrictionValues.of(new String[0]));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.RestrictionValues#of(java.lang.Object)}.
+     */
+    @Test
+    void testOfCopiesStringArray() throws RepositoryException {
+        String[] strings = new String[] {"name1", "name2"};
+        RestrictionValues rv = RestrictionValues.of(strings);
+        strings[0] = "changed";
+        assertEquals("name1", rv.getFirst());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.RestrictionValues#of(java.lang.Object)}.
+     */
+    @Test
+    void testOfConversionFailure() throws RepositoryException {
+        Value value = Mockito.mock(Value.class);
+        Mockito.when(value.getString()).thenThrow(new RepositoryException("test"));
+        assertThrows(RepositoryException.class, () -> RestrictionValues.of(value));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.RestrictionValues#getFirst()}.
+     */
+    @Test
+    void testGetFirst() {
+        assertEquals(
+                "name1",
+                RestrictionValues.ofStrings(new String[] {"name1", "name2"}).getFirst());
+        assertEquals("", RestrictionValues.EMPTY.getFirst());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.RestrictionValues#getList()}.
+     */
+    @Test
+    void testGetList() {
+        RestrictionValues rv = RestrictionValues.ofStrings(new String[] {"name1", "name2"});
+        List<String> list = rv.getList();
+        assertEquals(Arrays.asList("name1", "name2"), list);
+        // computed once
+        assertSame(list, rv.getList());
+        assertThrows(UnsupportedOperationException.class, () -> list.add("name3"));
+
+        // empty string if no values yet
+        assertEquals(Collections.singletonList(""), RestrictionValues.EMPTY.getList());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.RestrictionValues#size()}.
+     */
+    @Test
+    void testSize() {
+        assertEquals(
+                2, RestrictionValues.ofStrings(new String[] {"name1", "name2"}).size());
+        assertEquals(0, RestrictionValues.EMPTY.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.access.models.RestrictionValues#isEmpty()}.
+     */
+    @Test
+    void testIsEmpty() {
+        assertFalse(RestrictionValues.ofStrings(new String[] {"name1"}).isEmpty());
+        assertTrue(RestrictionValues.EMPTY.isEmpty());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets.impl;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssetManifestImplTest {
+    private AssetManifestImpl manifest;
+
+    @BeforeEach
+    void beforeEach() {
+        manifest = new AssetManifestImpl(
+                Map.of(
+                        "css/bundle.css",
+                        "css/bundle.0123456789.css",
+                        "img/asf-logo.svg",
+                        "img/asf-logo.abcdef0123.svg"),
+                Map.of("login", "@font-face{src:url({starter}/fonts/a.woff2)}body{margin:0}"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.AssetManifestImpl#parse(java.io.InputStream)}.
+     */
+    @Test
+    void testParse() {
+        String json = "{\"css/bundle.css\":\"css/bundle.0123456789.css\",\"ignored\":1}";
+        Map<String, String> map =
+                AssetManifestImpl.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Map.of("css/bundle.css", "css/bundle.0123456789.css"), map);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.AssetManifestImpl#AssetManifestImpl()}.
+     */
+    @Test
+    void testDefaultConstructorWithoutManifest() {
+        // the test classpath has no generated manifest
+        AssetManifestImpl plain = new AssetManifestImpl();
+        assertEquals("css/bundle.css", plain.getPath("css/bundle.css"));
+        assertTrue(plain.getPaths().isEmpty());
+        assertEquals("", plain.getCriticalCss("login", "/starter"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.AssetManifestImpl#getPath(java.lang.String)}.
+     */
+    @Test
+    void testGetPath() {
+        assertEquals("css/bundle.0123456789.css", manifest.getPath("css/bundle.css"));
+        assertEquals("img/other.png", manifest.getPath("img/other.png"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.AssetManifestImpl#isHashed(java.lang.String)}.
+     */
+    @Test
+    void testIsHashed() {
+        assertTrue(manifest.isHashed("css/bundle.0123456789.css"));
+        assertFalse(manifest.isHashed("css/bundle.css"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.AssetManifestImpl#getPaths()}.
+     */
+    @Test
+    void testGetPaths() {
+        Map<String, String> paths = manifest.getPaths();
+        assertEquals(2, paths.size());
+        assertThrows(UnsupportedOperationException.class, () -> paths.put("x", "y"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.AssetManifestImpl#getCriticalCss(java.lang.String, java.lang.String)}.
+     */
+    @Test
+    void testGetCriticalCss() {
+        assertEquals(
+                "@font-face{src:url(/ctx/starter/fonts/a.woff2)}body{margin:0}",
+                manifest.getCriticalCss("login", "/ctx/starter"));
+        assertEquals("", manifest.getCriticalCss("other", "/ctx/starter"));
+    }
+}
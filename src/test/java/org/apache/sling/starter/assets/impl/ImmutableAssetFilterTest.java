@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets.impl;
+
+import java.io.IOException;
+import java.util.Map;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ImmutableAssetFilterTest {
+    private ImmutableAssetFilter filter;
+    private SlingJakartaHttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain chain;
+
+    @BeforeEach
+    void beforeEach() {
+        filter = new ImmutableAssetFilter(
+                new AssetManifestImpl(Map.of("css/bundle.css", "css/bundle.0123456789.css"), Map.of()));
+        request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        response = Mockito.mock(HttpServletResponse.class);
+        chain = Mockito.mock(FilterChain.class);
+    }
+
+    private void mockResourcePath(String path) {
+        Resource resource = Mockito.mock(Resource.class);
+        Mockito.when(resource.getPath()).thenReturn(path);
+        Mockito.when(request.getResource()).thenReturn(resource);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.ImmutableAssetFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterHashedAsset() throws IOException, ServletException {
+        mockResourcePath("/content/starter/css/bundle.0123456789.css");
+        filter.doFilter(request, response, chain);
+        Mockito.verify(response).setHeader("Cache-Control", ImmutableAssetFilter.CACHE_CONTROL_IMMUTABLE);
+        Mockito.verify(chain).doFilter(request, response);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.ImmutableAssetFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterPlainAsset() throws IOException, ServletException {
+        mockResourcePath("/content/starter/css/bundle.css");
+        filter.doFilter(request, response, chain);
+        Mockito.verify(response, Mockito.never()).setHeader(Mockito.eq("Cache-Control"), Mockito.anyString());
+        Mockito.verify(chain).doFilter(request, response);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.ImmutableAssetFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterOtherPath() throws IOException, ServletException {
+        mockResourcePath("/content/other/css/bundle.0123456789.css");
+        filter.doFilter(request, response, chain);
+        Mockito.verify(response, Mockito.never()).setHeader(Mockito.eq("Cache-Control"), Mockito.anyString());
+        Mockito.verify(chain).doFilter(request, response);
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.request.RequestPathInfo;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceMetadata;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrecompressedAssetFilterTest {
+    private static final String CSS_PATH = "/content/starter/css/bundle.css";
+
+    private PrecompressedAssetFilter filter;
+    private SlingJakartaHttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain chain;
+    private ResourceResolver resolver;
+    private ByteArrayOutputStream body;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        filter = new PrecompressedAssetFilter();
+        request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        response = Mockito.mock(HttpServletResponse.class);
+        chain = Mockito.mock(FilterChain.class);
+        resolver = Mockito.mock(ResourceResolver.class);
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Mockito.when(request.getDateHeader("If-Modified-Since")).thenReturn(-1L);
+        Mockito.when(request.getRequestPathInfo()).thenReturn(Mockito.mock(RequestPathInfo.class));
+
+        ResourceMetadata metadata = new ResourceMetadata();
+        metadata.setContentType("text/css");
+        metadata.setModificationTime(1_700_000_000_000L);
+        Resource resource = mockResource(CSS_PATH, metadata);
+        Mockito.when(request.getResource()).thenReturn(resource);
+
+        body = new ByteArrayOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                // not used
+            }
+        });
+    }
+
+    private Resource mockResource(String path, ResourceMetadata metadata) {
+        Resource resource = Mockito.mock(Resource.class);
+        Mockito.when(resource.getPath()).thenReturn(path);
+        Mockito.when(resource.getResourceResolver()).thenReturn(resolver);
+        Mockito.when(resource.getResourceMetadata()).thenReturn(metadata);
+        return resource;
+    }
+
+    private void mockVariant(String ext, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ResourceMetadata metadata = new ResourceMetadata();
+        metadata.setContentLength(bytes.length);
+        Resource variant = mockResource(CSS_PATH + ext, metadata);
+        Mockito.when(variant.adaptTo(InputStream.class)).thenReturn(new ByteArrayInputStream(bytes));
+        Mockito.when(resolver.getResource(CSS_PATH + ext)).thenReturn(variant);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.PrecompressedAssetFilter#selectCoding(java.lang.String, java.util.Set)}.
+     */
+    @ParameterizedTest
+    @CsvSource(
+            nullValues = "null",
+            value = {
+                "'gzip, deflate, br', br",
+                "'gzip, deflate', gzip",
+                "'br;q=0.5, gzip;q=0.8', gzip",
+                "'br;q=0, gzip', gzip",
+                "'x-gzip', gzip",
+                "'*', br",
+                "'*;q=0.5, br;q=0', gzip",
+                "'identity', null",
+                "'br;q=abc, gzip;q=0', null",
+                "'', null",
+                "null, null"
+            })
+    void testSelectCoding(String acceptEncoding, String expected) {
+        assertEquals(expected, PrecompressedAssetFilter.selectCoding(acceptEncoding, Set.of("br", "gzip")));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.PrecompressedAssetFilter#selectCoding(java.lang.String, java.util.Set)}.
+     */
+    @Test
+    void testSelectCodingOnlyAvailable() {
+        assertEquals("gzip", PrecompressedAssetFilter.selectCoding("br, gzip", Set.of("gzip")));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.PrecompressedAssetFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterServesVariant() throws IOException, ServletException {
+        mockVariant(".br", "brotli");
+        mockVariant(".gz", "gzip");
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("gzip, br");
+
+        filter.doFilter(request, response, chain);
+
+        Mockito.verify(chain, Mockito.never()).doFilter(request, response);
+        Mockito.verify(response).addHeader("Vary", "Accept-Encoding");
+        Mockito.verify(response).setHeader("Content-Encoding", "br");
+        Mockito.verify(response).setContentType("text/css");
+        Mockito.verify(response).setContentLengthLong(6);
+        assertEquals("brotli", body.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.PrecompressedAssetFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterNotModified() throws IOException, ServletException {
+        mockVariant(".gz", "gzip");
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        Mockito.when(request.getDateHeader("If-Modified-Since")).thenReturn(1_700_000_000_000L);
+
+        filter.doFilter(request, response, chain);
+
+        Mockito.verify(chain, Mockito.never()).doFilter(request, response);
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals(0, body.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.PrecompressedAssetFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterNotAccepted() throws IOException, ServletException {
+        mockVariant(".gz", "gzip");
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("identity");
+
+        filter.doFilter(request, response, chain);
+
+        Mockito.verify(chain).doFilter(request, response);
+        Mockito.verify(response).addHeader("Vary", "Accept-Encoding");
+        Mockito.verify(response, Mockito.never()).setHeader(Mockito.eq("Content-Encoding"), Mockito.anyString());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.PrecompressedAssetFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterNoVariant() throws IOException, ServletException {
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("gzip, br");
+
+        filter.doFilter(request, response, chain);
+
+        Mockito.verify(chain).doFilter(request, response);
+        Mockito.verify(response, Mockito.never()).addHeader("Vary", "Accept-Encoding");
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.impl.PrecompressedAssetFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterRangeRequest() throws IOException, ServletException {
+        mockVariant(".gz", "gzip");
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=0-10");
+
+        filter.doFilter(request, response, chain);
+
+        Mockito.verify(chain).doFilter(request, response);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.assets.models;
+
+import java.util.Map;
+
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.starter.assets.AssetManifest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AssetsTest {
+    private Assets assets;
+
+    @BeforeEach
+    void beforeEach() {
+        assets = new Assets();
+        assets.request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        Mockito.when(assets.request.getContextPath()).thenReturn("/ctx");
+        assets.manifest = Mockito.mock(AssetManifest.class);
+        Mockito.when(assets.manifest.getPath(Mockito.anyString())).thenAnswer(inv -> inv.getArgument(0));
+        Mockito.when(assets.manifest.getPath("css/bundle.css")).thenReturn("css/bundle.0123456789.css");
+        Mockito.when(assets.manifest.getPaths()).thenReturn(Map.of("css/bundle.css", "css/bundle.0123456789.css"));
+        Mockito.when(assets.manifest.getCriticalCss("home", "/ctx/starter")).thenReturn("body{margin:0}");
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.models.Assets#getUrl(java.lang.String)}.
+     */
+    @Test
+    void testGetUrl() {
+        assertEquals("/ctx/starter/css/bundle.0123456789.css", assets.getUrl("css/bundle.css"));
+        assertEquals("/ctx/starter/img/sling-logo.svg", assets.getUrl("img/sling-logo.svg"));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.models.Assets#getPaths()}.
+     */
+    @Test
+    void testGetPaths() {
+        Map<String, String> paths = assets.getPaths();
+        assertEquals("/ctx/starter/css/bundle.0123456789.css", paths.get("css/bundle.css"));
+        // not in the manifest, so the plain name
+        assertEquals("/ctx/starter/img/sling-logo.svg", paths.get("img/sling-logo.svg"));
+        assertEquals(Map.of("css/bundle.css", "/ctx/starter/css/bundle.0123456789.css"), Map.copyOf(paths));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.assets.models.Assets#getCriticalCss()}.
+     */
+    @Test
+    void testGetCriticalCss() {
+        assertEquals("body{margin:0}", assets.getCriticalCss().get("home"));
+        assertNull(assets.getCriticalCss().get(1));
+    }
+}
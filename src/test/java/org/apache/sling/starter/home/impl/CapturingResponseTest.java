@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapturingResponseTest {
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.CapturingResponse#getBody()}.
+     */
+    @Test
+    void testGetBodyFromWriter() throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        CapturingResponse capture = new CapturingResponse(response);
+        capture.getWriter().write("héllo");
+        assertArrayEquals("héllo".getBytes(StandardCharsets.UTF_8), capture.getBody());
+        assertTrue(capture.isCacheable());
+        // nothing reaches the wrapped response
+        Mockito.verify(response, Mockito.never()).getWriter();
+        assertThrows(IllegalStateException.class, capture::getOutputStream);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.CapturingResponse#getBody()}.
+     */
+    @Test
+    void testGetBodyFromOutputStream() throws IOException {
+        CapturingResponse capture = new CapturingResponse(Mockito.mock(HttpServletResponse.class));
+        capture.getOutputStream().write(new byte[] {1, 2, 3});
+        assertArrayEquals(new byte[] {1, 2, 3}, capture.getBody());
+        assertThrows(IllegalStateException.class, capture::getWriter);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.CapturingResponse#isCacheable()}.
+     */
+    @Test
+    void testIsCacheable() throws IOException {
+        CapturingResponse capture = new CapturingResponse(Mockito.mock(HttpServletResponse.class));
+        // nothing written yet
+        assertFalse(capture.isCacheable());
+
+        capture.getWriter().write("x");
+        capture.setStatus(HttpServletResponse.SC_CREATED);
+        assertFalse(capture.isCacheable());
+
+        capture = new CapturingResponse(Mockito.mock(HttpServletResponse.class));
+        capture.sendRedirect("/somewhere");
+        assertTrue(capture.isPassedThrough());
+        assertFalse(capture.isCacheable());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.CapturingResponse#setHeader(java.lang.String, java.lang.String)}.
+     */
+    @Test
+    void testSetHeader() throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        CapturingResponse capture = new CapturingResponse(response);
+        capture.getWriter().write("x");
+        capture.setHeader("Content-Language", "en");
+        capture.addHeader("vary", "Accept");
+        capture.addHeader("Vary", "Accept-Encoding");
+        capture.setDateHeader("Last-Modified", 0);
+        assertEquals(List.of("en"), capture.getCapturedHeaders().get("content-language"));
+        assertEquals(
+                List.of("Accept", "Accept-Encoding"),
+                capture.getCapturedHeaders().get("Vary"));
+        assertEquals("Thu, 1 Jan 1970 00:00:00 GMT", capture.getHeader("Last-Modified"));
+        assertTrue(capture.isCacheable());
+        // kept until the page is sent
+        Mockito.verify(response, Mockito.never()).setHeader(Mockito.anyString(), Mockito.anyString());
+
+        capture.addHeader("Set-Cookie", "a=b");
+        assertFalse(capture.isCacheable());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.CapturingResponse#addCookie(jakarta.servlet.http.Cookie)}.
+     */
+    @Test
+    void testAddCookie() throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        CapturingResponse capture = new CapturingResponse(response);
+        capture.getWriter().write("x");
+        Cookie cookie = new Cookie("a", "b");
+        capture.addCookie(cookie);
+        assertFalse(capture.isCacheable());
+        Mockito.verify(response).addCookie(cookie);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.CapturingResponse#sendError(int)}.
+     */
+    @Test
+    void testSendErrorPassesHeaders() throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        CapturingResponse capture = new CapturingResponse(response);
+        capture.setHeader("Content-Language", "en");
+        capture.sendError(HttpServletResponse.SC_NOT_FOUND);
+        Mockito.verify(response).setHeader("Content-Language", "en");
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.CapturingResponse#reset()}.
+     */
+    @Test
+    void testReset() throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        CapturingResponse capture = new CapturingResponse(response);
+        capture.setStatus(HttpServletResponse.SC_CREATED);
+        capture.setHeader("Content-Language", "en");
+        capture.getWriter().write("partial");
+        capture.reset();
+        Mockito.verify(response).reset();
+        assertEquals(HttpServletResponse.SC_OK, capture.getStatus());
+        assertTrue(capture.getCapturedHeaders().isEmpty());
+        assertEquals(0, capture.getBody().length);
+
+        capture.getWriter().write("full");
+        assertEquals("full", new String(capture.getBody(), StandardCharsets.UTF_8));
+        assertTrue(capture.isCacheable());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.CapturingResponse#resetBuffer()}.
+     */
+    @Test
+    void testResetBuffer() throws IOException {
+        CapturingResponse capture = new CapturingResponse(Mockito.mock(HttpServletResponse.class));
+        capture.setHeader("Content-Language", "en");
+        capture.getOutputStream().write(new byte[] {1, 2, 3});
+        capture.resetBuffer();
+        capture.getOutputStream().write(new byte[] {4});
+        assertArrayEquals(new byte[] {4}, capture.getBody());
+        assertEquals(List.of("en"), capture.getCapturedHeaders().get("Content-Language"));
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.request.RequestPathInfo;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.starter.home.SidebarExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HomePageCacheFilterTest {
+    private static final String PAGE = "<html>home</html>";
+
+    private HomePageCacheFilter filter;
+    private SlingJakartaHttpServletRequest request;
+    private RequestPathInfo pathInfo;
+    private FilterChain chain;
+
+    @BeforeEach
+    void beforeEach() throws IOException, ServletException {
+        filter = new HomePageCacheFilter();
+        request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Resource resource = Mockito.mock(Resource.class);
+        Mockito.when(resource.getPath()).thenReturn("/content/starter");
+        Mockito.when(resource.isResourceType(HomePageCacheFilter.HOME_RESOURCE_TYPE))
+                .thenReturn(true);
+        Mockito.when(request.getResource()).thenReturn(resource);
+        pathInfo = Mockito.mock(RequestPathInfo.class);
+        Mockito.when(pathInfo.getExtension()).thenReturn("html");
+        Mockito.when(request.getRequestPathInfo()).thenReturn(pathInfo);
+
+        chain = Mockito.mock(FilterChain.class);
+        Mockito.doAnswer(inv -> {
+                    HttpServletResponse response = inv.getArgument(1);
+                    response.setContentType("text/html");
+                    response.getWriter().write(PAGE);
+                    return null;
+                })
+                .when(chain)
+                .doFilter(Mockito.any(), Mockito.any());
+    }
+
+    private HttpServletResponse mockResponse(ByteArrayOutputStream body) throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(body, true));
+        Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                // not used
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterRendersOnce() throws IOException, ServletException {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        filter.doFilter(request, mockResponse(first), chain);
+        assertEquals(PAGE, first.toString(StandardCharsets.UTF_8));
+        assertEquals(1, filter.size());
+
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(second);
+        filter.doFilter(request, response, chain);
+        assertEquals(PAGE, second.toString(StandardCharsets.UTF_8));
+        Mockito.verify(chain, Mockito.times(1)).doFilter(Mockito.any(), Mockito.any());
+        Mockito.verify(response).setHeader("ETag", HomePageCacheFilter.etag(PAGE.getBytes(StandardCharsets.UTF_8)));
+        Mockito.verify(response).setContentType("text/html");
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterReplaysHeaders() throws IOException, ServletException {
+        Mockito.doAnswer(inv -> {
+                    HttpServletResponse response = inv.getArgument(1);
+                    response.setContentType("text/html");
+                    response.setHeader("Content-Language", "en");
+                    response.addHeader("Vary", "Accept");
+                    response.addHeader("Vary", "Accept-Encoding");
+                    response.setHeader("Cache-Control", "max-age=60");
+                    response.getWriter().write(PAGE);
+                    return null;
+                })
+                .when(chain)
+                .doFilter(Mockito.any(), Mockito.any());
+        HttpServletResponse first = mockResponse(new ByteArrayOutputStream());
+        filter.doFilter(request, first, chain);
+        Mockito.verify(first).setHeader("Content-Language", "en");
+
+        HttpServletResponse response = mockResponse(new ByteArrayOutputStream());
+        filter.doFilter(request, response, chain);
+        Mockito.verify(chain, Mockito.times(1)).doFilter(Mockito.any(), Mockito.any());
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_OK);
+        Mockito.verify(response).setHeader("Content-Language", "en");
+        Mockito.verify(response).setHeader("Vary", "Accept");
+        Mockito.verify(response).addHeader("Vary", "Accept-Encoding");
+        // the stored copy sets its own cache headers
+        Mockito.verify(response, Mockito.never()).setHeader("Cache-Control", "max-age=60");
+        Mockito.verify(response).setHeader("Cache-Control", "no-cache");
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterNotModified() throws IOException, ServletException {
+        filter.doFilter(request, mockResponse(new ByteArrayOutputStream()), chain);
+
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn(HomePageCacheFilter.etag(PAGE.getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+        filter.doFilter(request, response, chain);
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals(0, body.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterErrorNotStored() throws IOException, ServletException {
+        Mockito.doAnswer(inv -> {
+                    HttpServletResponse response = inv.getArgument(1);
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    return null;
+                })
+                .when(chain)
+                .doFilter(Mockito.any(), Mockito.any());
+        HttpServletResponse response = mockResponse(new ByteArrayOutputStream());
+        filter.doFilter(request, response, chain);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        assertEquals(0, filter.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+     */
+    @Test
+    void testDoFilterWithSelectors() throws IOException, ServletException {
+        Mockito.when(pathInfo.getSelectorString()).thenReturn("print");
+        HttpServletResponse response = mockResponse(new ByteArrayOutputStream());
+        filter.doFilter(request, response, chain);
+        Mockito.verify(chain).doFilter(request, response);
+        assertEquals(0, filter.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#onChange(java.util.List)}.
+     */
+    @Test
+    void testOnChange() throws IOException, ServletException {
+        filter.doFilter(request, mockResponse(new ByteArrayOutputStream()), chain);
+        assertEquals(1, filter.size());
+        filter.onChange(List.of());
+        assertEquals(0, filter.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#bindSidebarExtension(org.apache.sling.starter.home.SidebarExtension)}.
+     */
+    @Test
+    void testBindSidebarExtension() throws IOException, ServletException {
+        SidebarExtension extension = Mockito.mock(SidebarExtension.class);
+        filter.doFilter(request, mockResponse(new ByteArrayOutputStream()), chain);
+        filter.bindSidebarExtension(extension);
+        assertEquals(0, filter.size());
+
+        filter.doFilter(request, mockResponse(new ByteArrayOutputStream()), chain);
+        filter.unbindSidebarExtension(extension);
+        assertEquals(0, filter.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#isCacheableRequest(org.apache.sling.api.SlingJakartaHttpServletRequest)}.
+     */
+    @Test
+    void testIsCacheableRequest() {
+        assertTrue(filter.isCacheableRequest(request));
+
+        Mockito.when(request.getQueryString()).thenReturn("a=b");
+        assertFalse(filter.isCacheableRequest(request));
+
+        Mockito.when(pathInfo.getSelectorString()).thenReturn("login.static");
+        assertFalse(filter.isCacheableRequest(request));
+        Mockito.when(request.getQueryString()).thenReturn(null);
+        assertTrue(filter.isCacheableRequest(request));
+        Mockito.when(pathInfo.getSelectorString()).thenReturn("login");
+        assertFalse(filter.isCacheableRequest(request));
+
+        Mockito.when(pathInfo.getSelectorString()).thenReturn(null);
+        Mockito.when(request.getMethod()).thenReturn("POST");
+        assertFalse(filter.isCacheableRequest(request));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.HomePageCacheFilter#matches(java.lang.String, java.lang.String)}.
+     */
+    @Test
+    void testMatches() {
+        assertTrue(HomePageCacheFilter.matches("\"abc\"", "\"abc\""));
+        assertTrue(HomePageCacheFilter.matches("\"x\", W/\"abc\"", "\"abc\""));
+        assertTrue(HomePageCacheFilter.matches("*", "\"abc\""));
+        assertFalse(HomePageCacheFilter.matches("\"x\"", "\"abc\""));
+        assertFalse(HomePageCacheFilter.matches(null, "\"abc\""));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.starter.home.SidebarExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SidebarExtensionRegistryImplTest {
+    private SidebarExtensionRegistryImpl registry;
+    private SidebarExtension first;
+    private SidebarExtension second;
+    private SidebarExtension third;
+
+    @BeforeEach
+    void beforeEach() {
+        registry = new SidebarExtensionRegistryImpl();
+        first = mockExtension("first");
+        second = mockExtension("second");
+        third = mockExtension("third");
+        registry.bindSidebarExtension(third, Map.of("service.id", 3L));
+        registry.bindSidebarExtension(second, Map.of("service.id", 2L));
+        registry.bindSidebarExtension(first, Map.of("service.id", 4L, "service.ranking", 10));
+    }
+
+    private static SidebarExtension mockExtension(String name) {
+        SidebarExtension extension = Mockito.mock(SidebarExtension.class);
+        Mockito.when(extension.getName()).thenReturn(name);
+        return extension;
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarExtensionRegistryImpl#getExtensions()}.
+     */
+    @Test
+    void testGetExtensions() {
+        assertEquals(List.of(first, second, third), registry.getExtensions());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarExtensionRegistryImpl#unbindSidebarExtension(org.apache.sling.starter.home.SidebarExtension, java.util.Map)}.
+     */
+    @Test
+    void testUnbindSidebarExtension() {
+        registry.unbindSidebarExtension(second, Map.of("service.id", 2L));
+        assertEquals(List.of(first, third), registry.getExtensions());
+
+        registry.unbindSidebarExtension(first, Map.of("service.id", 4L, "service.ranking", 10));
+        registry.unbindSidebarExtension(third, Map.of("service.id", 3L));
+        assertTrue(registry.getExtensions().isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarExtensionRegistryImpl#getExtension(java.lang.String)}.
+     */
+    @Test
+    void testGetExtension() {
+        assertSame(second, registry.getExtension("second"));
+        assertNull(registry.getExtension("unknown"));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.starter.home.SidebarExtension;
+import org.apache.sling.starter.home.SidebarExtensionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SidebarExtensionServletTest {
+    private SidebarExtensionServlet servlet;
+    private SidebarExtensionRegistry registry;
+    private SlingJakartaHttpServletRequest request;
+    private SlingJakartaHttpServletResponse response;
+    private StringWriter output;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        registry = Mockito.mock(SidebarExtensionRegistry.class);
+        servlet = new SidebarExtensionServlet(registry);
+        request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        response = Mockito.mock(SlingJakartaHttpServletResponse.class);
+        output = new StringWriter();
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(output, true));
+
+        SidebarExtension extension = Mockito.mock(SidebarExtension.class);
+        Mockito.doAnswer(inv -> {
+                    inv.getArgument(1, Writer.class).write("<p>slow</p>");
+                    return null;
+                })
+                .when(extension)
+                .render(Mockito.eq(request), Mockito.any(Writer.class));
+        Mockito.when(registry.getExtension("slow")).thenReturn(extension);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarExtensionServlet#doGet(org.apache.sling.api.SlingJakartaHttpServletRequest, org.apache.sling.api.SlingJakartaHttpServletResponse)}.
+     */
+    @Test
+    void testDoGet() throws IOException {
+        Mockito.when(request.getParameter("name")).thenReturn("slow");
+        servlet.doGet(request, response);
+        Mockito.verify(response).setContentType("text/html");
+        assertEquals("<p>slow</p>", output.toString());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarExtensionServlet#doGet(org.apache.sling.api.SlingJakartaHttpServletRequest, org.apache.sling.api.SlingJakartaHttpServletResponse)}.
+     */
+    @Test
+    void testDoGetUnknownExtension() throws IOException {
+        Mockito.when(request.getParameter("name")).thenReturn("unknown");
+        servlet.doGet(request, response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+
+        Mockito.when(request.getParameter("name")).thenReturn(null);
+        servlet.doGet(request, response);
+        Mockito.verify(response, Mockito.times(2)).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+}
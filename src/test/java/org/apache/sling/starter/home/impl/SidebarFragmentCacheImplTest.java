@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.impl;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceMetadata;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChange.ChangeType;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SidebarFragmentCacheImplTest {
+    private static final String EXTENSION_PATH = "/content/starter/sidebar-extensions/ext1";
+
+    private SidebarFragmentCacheImpl cache;
+    private SlingJakartaHttpServletRequest request;
+    private HttpServletResponse response;
+    private RequestDispatcher dispatcher;
+    private Resource extension;
+    private Calendar lastModified;
+
+    @BeforeEach
+    void beforeEach() throws IOException, ServletException {
+        cache = new SidebarFragmentCacheImpl();
+        request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        response = Mockito.mock(HttpServletResponse.class);
+        dispatcher = Mockito.mock(RequestDispatcher.class);
+        Mockito.doAnswer(inv -> {
+                    HttpServletResponse r = inv.getArgument(1);
+                    r.getWriter().write("<p>ext1</p>");
+                    return null;
+                })
+                .when(dispatcher)
+                .include(Mockito.any(), Mockito.any());
+
+        lastModified = Calendar.getInstance();
+        extension = Mockito.mock(Resource.class);
+        Mockito.when(extension.getPath()).thenReturn(EXTENSION_PATH);
+        Mockito.when(extension.getValueMap())
+                .thenAnswer(inv -> new ValueMapDecorator(Map.of("jcr:lastModified", lastModified)));
+        Mockito.when(request.getRequestDispatcher(extension)).thenReturn(dispatcher);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarFragmentCacheImpl#getFragment(org.apache.sling.api.SlingJakartaHttpServletRequest, jakarta.servlet.http.HttpServletResponse, org.apache.sling.api.resource.Resource)}.
+     */
+    @Test
+    void testGetFragmentRendersOnce() throws IOException, ServletException {
+        assertEquals("<p>ext1</p>", cache.getFragment(request, response, extension));
+        assertEquals("<p>ext1</p>", cache.getFragment(request, response, extension));
+        Mockito.verify(dispatcher, Mockito.times(1)).include(Mockito.any(), Mockito.any());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarFragmentCacheImpl#getFragment(org.apache.sling.api.SlingJakartaHttpServletRequest, jakarta.servlet.http.HttpServletResponse, org.apache.sling.api.resource.Resource)}.
+     */
+    @Test
+    void testGetFragmentModified() throws IOException, ServletException {
+        cache.getFragment(request, response, extension);
+        lastModified = Calendar.getInstance();
+        lastModified.add(Calendar.MINUTE, 1);
+        cache.getFragment(request, response, extension);
+        Mockito.verify(dispatcher, Mockito.times(2)).include(Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarFragmentCacheImpl#getFragment(org.apache.sling.api.SlingJakartaHttpServletRequest, jakarta.servlet.http.HttpServletResponse, org.apache.sling.api.resource.Resource)}.
+     */
+    @Test
+    void testGetFragmentFailure() throws IOException, ServletException {
+        Mockito.doThrow(new ServletException("test")).when(dispatcher).include(Mockito.any(), Mockito.any());
+        assertEquals("", cache.getFragment(request, response, extension));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarFragmentCacheImpl#getLastModified(org.apache.sling.api.resource.Resource)}.
+     */
+    @Test
+    void testGetLastModified() {
+        assertEquals(lastModified.getTimeInMillis(), SidebarFragmentCacheImpl.getLastModified(extension));
+
+        Resource other = Mockito.mock(Resource.class);
+        Mockito.when(other.getValueMap()).thenReturn(ValueMap.EMPTY);
+        ResourceMetadata metadata = new ResourceMetadata();
+        metadata.setModificationTime(42);
+        Mockito.when(other.getResourceMetadata()).thenReturn(metadata);
+        assertEquals(42, SidebarFragmentCacheImpl.getLastModified(other));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.impl.SidebarFragmentCacheImpl#onChange(java.util.List)}.
+     */
+    @Test
+    void testOnChange() {
+        cache.getFragment(request, response, extension);
+
+        cache.onChange(
+                List.of(new ResourceChange(ChangeType.CHANGED, "/content/starter/sidebar-extensions/ext2", false)));
+        assertEquals(1, cache.size());
+
+        // a change below the extension
+        cache.onChange(List.of(new ResourceChange(ChangeType.CHANGED, EXTENSION_PATH + "/jcr:content", false)));
+        assertEquals(0, cache.size());
+
+        // a removed ancestor
+        cache.getFragment(request, response, extension);
+        cache.onChange(List.of(new ResourceChange(ChangeType.REMOVED, "/content/starter", false)));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.models;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.starter.home.SidebarExtension;
+import org.apache.sling.starter.home.SidebarExtensionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HomeTest {
+    private Home home;
+    private ResourceResolver resolver;
+
+    @BeforeEach
+    void beforeEach() {
+        home = new Home();
+        home.request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        Mockito.when(home.request.getContextPath()).thenReturn("/ctx");
+        resolver = Mockito.mock(ResourceResolver.class);
+        Mockito.when(home.request.getResourceResolver()).thenReturn(resolver);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.models.Home#getLoginUrl()}.
+     */
+    @Test
+    void testGetLoginUrl() {
+        assertEquals("/ctx/system/sling/login.html", home.getLoginUrl());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.models.Home#getLogoutUrl()}.
+     */
+    @Test
+    void testGetLogoutUrl() {
+        assertEquals("/ctx/system/sling/logout", home.getLogoutUrl());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.models.Home#getSessionInfoUrl()}.
+     */
+    @Test
+    void testGetSessionInfoUrl() {
+        assertEquals("/ctx/system/sling/info.sessionInfo.json", home.getSessionInfoUrl());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.models.Home#getSidebarExtensionsPath()}.
+     */
+    @Test
+    void testGetSidebarExtensionsPath() {
+        assertEquals("/content/starter/sidebar-extensions", home.getSidebarExtensionsPath());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.models.Home#isHasSidebarExtensions()}.
+     */
+    @Test
+    void testIsHasSidebarExtensions() {
+        assertFalse(home.isHasSidebarExtensions());
+        Mockito.when(resolver.getResource(Home.SIDEBAR_EXTENSIONS_PATH)).thenReturn(Mockito.mock(Resource.class));
+        assertTrue(home.isHasSidebarExtensions());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.models.Home#getSidebarItems()}.
+     */
+    @Test
+    void testGetSidebarItems() throws IOException {
+        Resource resource = Mockito.mock(Resource.class);
+        Mockito.when(resource.getPath()).thenReturn("/content/starter");
+        Mockito.when(home.request.getResource()).thenReturn(resource);
+
+        SidebarExtension eager = Mockito.mock(SidebarExtension.class);
+        Mockito.when(eager.getName()).thenReturn("eager");
+        Mockito.doAnswer(inv -> {
+                    inv.getArgument(1, Writer.class).write("<p>eager</p>");
+                    return null;
+                })
+                .when(eager)
+                .render(Mockito.eq(home.request), Mockito.any(Writer.class));
+        SidebarExtension lazy = Mockito.mock(SidebarExtension.class);
+        Mockito.when(lazy.getName()).thenReturn("lazy one");
+        Mockito.when(lazy.isLazy()).thenReturn(true);
+        SidebarExtension failing = Mockito.mock(SidebarExtension.class);
+        Mockito.when(failing.getName()).thenReturn("failing");
+        Mockito.doThrow(new IOException("test"))
+                .when(failing)
+                .render(Mockito.eq(home.request), Mockito.any(Writer.class));
+        home.sidebarExtensionRegistry = Mockito.mock(SidebarExtensionRegistry.class);
+        Mockito.when(home.sidebarExtensionRegistry.getExtensions()).thenReturn(List.of(eager, lazy, failing));
+
+        List<Home.SidebarItem> items = home.getSidebarItems();
+        assertEquals(3, items.size());
+        assertEquals("eager", items.get(0).getName());
+        assertFalse(items.get(0).isLazy());
+        assertEquals("<p>eager</p>", items.get(0).getHtml());
+        assertTrue(items.get(1).isLazy());
+        assertEquals(
+                "/ctx/content/starter.sidebar.html?name=lazy+one", items.get(1).getUrl());
+        assertEquals("", items.get(2).getHtml());
+    }
+}
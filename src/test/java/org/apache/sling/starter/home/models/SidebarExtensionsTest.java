@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.home.models;
+
+import java.util.List;
+
+import org.apache.sling.api.SlingJakartaHttpServletRequest;
+import org.apache.sling.api.SlingJakartaHttpServletResponse;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.starter.home.SidebarFragmentCache;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SidebarExtensionsTest {
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.models.SidebarExtensions#getHtml()}.
+     */
+    @Test
+    void testGetHtml() {
+        SidebarExtensions sidebar = new SidebarExtensions();
+        sidebar.request = Mockito.mock(SlingJakartaHttpServletRequest.class);
+        sidebar.response = Mockito.mock(SlingJakartaHttpServletResponse.class);
+        sidebar.resource = Mockito.mock(Resource.class);
+        Resource ext1 = Mockito.mock(Resource.class);
+        Resource ext2 = Mockito.mock(Resource.class);
+        Mockito.when(sidebar.resource.getChildren()).thenReturn(List.of(ext1, ext2));
+        sidebar.fragmentCache = Mockito.mock(SidebarFragmentCache.class);
+        Mockito.when(sidebar.fragmentCache.getFragment(sidebar.request, sidebar.response, ext1))
+                .thenReturn("<p>1</p>");
+        Mockito.when(sidebar.fragmentCache.getFragment(sidebar.request, sidebar.response, ext2))
+                .thenReturn("<p>2</p>");
+
+        assertTrue(sidebar.isCached());
+        assertEquals("<p>1</p><p>2</p>", sidebar.getHtml());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.home.models.SidebarExtensions#getHtml()}
+     * without the fragment cache.
+     */
+    @Test
+    void testGetHtmlWithoutCache() {
+        SidebarExtensions sidebar = new SidebarExtensions();
+        assertFalse(sidebar.isCached());
+        assertEquals("", sidebar.getHtml());
+    }
+}
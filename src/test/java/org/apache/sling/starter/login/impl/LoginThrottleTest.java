@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.login.impl;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.auth.core.spi.AuthenticationInfo;
+import org.apache.sling.auth.core.spi.JakartaAuthenticationFeedbackHandler;
+import org.apache.sling.auth.core.spi.JakartaAuthenticationHandler;
+import org.apache.sling.starter.login.impl.LoginThrottle.SlidingWindowCounter;
+import org.apache.sling.starter.login.models.Login;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+    private LoginThrottle throttle;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    @BeforeEach
+    void beforeEach() {
+        LoginThrottle.Config config = Mockito.mock(LoginThrottle.Config.class);
+        Mockito.when(config.max_attempts_per_user()).thenReturn(3);
+        Mockito.when(config.max_attempts_per_client()).thenReturn(5);
+        Mockito.when(config.window_seconds()).thenReturn(60);
+        Mockito.when(config.stripes()).thenReturn(1024);
+        throttle = new LoginThrottle(config);
+        request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getRequestURI()).thenReturn("/j_security_check");
+        Mockito.when(request.getRemoteAddr()).thenReturn("192.0.2.1");
+        response = Mockito.mock(HttpServletResponse.class);
+    }
+
+    private static AuthenticationInfo info(String user) {
+        return new AuthenticationInfo("FORM", user, "secret".toCharArray());
+    }
+
+    /**
+     * Submits a login that the repository then rejects
+     */
+    private void failLogin(String user) throws LoginException {
+        AuthenticationInfo info = info(user);
+        throttle.postProcess(info, request, response);
+        ((JakartaAuthenticationFeedbackHandler) info.get(LoginThrottle.AUTH_INFO_PROP_FEEDBACK_HANDLER))
+                .authenticationFailed(request, response, info);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.impl.LoginThrottle#postProcess(org.apache.sling.auth.core.spi.AuthenticationInfo, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse)}.
+     */
+    @Test
+    void testPostProcessPerUser() throws LoginException {
+        for (int i = 0; i < 3; i++) {
+            failLogin("admin");
+        }
+        assertThrows(LoginException.class, () -> throttle.postProcess(info("Admin"), request, response));
+        Mockito.verify(request).setAttribute(JakartaAuthenticationHandler.FAILURE_REASON, Login.TOO_MANY_ATTEMPTS);
+
+        // other users from another client are not affected
+        Mockito.when(request.getRemoteAddr()).thenReturn("192.0.2.2");
+        throttle.postProcess(info("other"), request, response);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.impl.LoginThrottle#postProcess(org.apache.sling.auth.core.spi.AuthenticationInfo, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse)}.
+     */
+    @Test
+    void testPostProcessPerClient() throws LoginException {
+        for (int i = 0; i < 5; i++) {
+            failLogin("user" + i);
+        }
+        assertThrows(LoginException.class, () -> throttle.postProcess(info("user5"), request, response));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.impl.LoginThrottle#postProcess(org.apache.sling.auth.core.spi.AuthenticationInfo, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse)}.
+     */
+    @Test
+    void testPostProcessCountsOnlyFailures() throws LoginException {
+        JakartaAuthenticationFeedbackHandler original = Mockito.mock(JakartaAuthenticationFeedbackHandler.class);
+        Mockito.when(original.authenticationSucceeded(request, response, null)).thenReturn(true);
+        for (int i = 0; i < 10; i++) {
+            AuthenticationInfo info = info("admin");
+            info.put(LoginThrottle.AUTH_INFO_PROP_FEEDBACK_HANDLER, original);
+            throttle.postProcess(info, request, response);
+            JakartaAuthenticationFeedbackHandler handler =
+                    (JakartaAuthenticationFeedbackHandler) info.get(LoginThrottle.AUTH_INFO_PROP_FEEDBACK_HANDLER);
+            // the feedback still reaches the handler of the authentication handler
+            assertTrue(handler.authenticationSucceeded(request, response, null));
+        }
+        Mockito.verify(original, Mockito.times(10)).authenticationSucceeded(request, response, null);
+        Mockito.verify(request, Mockito.never()).setAttribute(Mockito.anyString(), Mockito.any());
+
+        // rejected attempts are not counted, so the user is not locked out for longer
+        for (int i = 0; i < 3; i++) {
+            failLogin("user");
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThrows(LoginException.class, () -> throttle.postProcess(info("user"), request, response));
+        }
+        assertEquals(3, throttle.users.get("user", System.currentTimeMillis()));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.impl.LoginThrottle#postProcess(org.apache.sling.auth.core.spi.AuthenticationInfo, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse)}.
+     */
+    @Test
+    void testPostProcessOtherRequests() throws LoginException {
+        // requests authenticated by a cookie or token are not login attempts
+        for (int i = 0; i < 10; i++) {
+            throttle.postProcess(new AuthenticationInfo("TOKEN", "admin"), request, response);
+        }
+        Mockito.when(request.getRequestURI()).thenReturn("/content/starter.html");
+        for (int i = 0; i < 10; i++) {
+            throttle.postProcess(info("admin"), request, response);
+        }
+        Mockito.verify(request, Mockito.never()).setAttribute(Mockito.anyString(), Mockito.any());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.impl.LoginThrottle#getClientAddress(jakarta.servlet.http.HttpServletRequest)}.
+     */
+    @Test
+    void testGetClientAddress() {
+        assertEquals("192.0.2.1", throttle.getClientAddress(request));
+
+        LoginThrottle.Config config = Mockito.mock(LoginThrottle.Config.class);
+        Mockito.when(config.client_header()).thenReturn("X-Forwarded-For");
+        LoginThrottle proxied = new LoginThrottle(config);
+        assertEquals("192.0.2.1", proxied.getClientAddress(request));
+        Mockito.when(request.getHeader("X-Forwarded-For")).thenReturn("203.0.113.9, 198.51.100.7");
+        // the address added by the trusted proxy
+        assertEquals("198.51.100.7", proxied.getClientAddress(request));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.impl.LoginThrottle.SlidingWindowCounter#increment(java.lang.String, long)}.
+     */
+    @Test
+    void testSlidingWindowCounter() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(16, 1000);
+        assertEquals(1, counter.increment("a", 10_000));
+        assertEquals(2, counter.increment("a", 10_100));
+        assertEquals(3, counter.increment("a", 10_999));
+
+        // half way through the next window half of the previous count remains
+        assertEquals(3, counter.increment("a", 11_500));
+        // at the end of the next window almost nothing of the first window remains
+        assertEquals(2, counter.increment("a", 11_999));
+        // a window that is further away starts from scratch
+        assertEquals(1, counter.increment("a", 20_000));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.impl.LoginThrottle.SlidingWindowCounter#get(java.lang.String, long)}.
+     */
+    @Test
+    void testSlidingWindowCounterGet() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(16, 1000);
+        assertEquals(0, counter.get("a", 10_000));
+        counter.increment("a", 10_000);
+        assertEquals(1, counter.get("a", 10_500));
+        assertEquals(1, counter.get("a", 10_999));
+        assertEquals(0, counter.get("a", 20_000));
+    }
+}
@@ -18,8 +18,12 @@
  */
 package org.apache.sling.starter.login.models;
 
+import java.io.StringReader;
 import java.util.stream.Stream;
 
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
 import org.apache.sling.api.SlingJakartaHttpServletRequest;
 import org.apache.sling.auth.core.spi.AuthenticationHandler.FAILURE_REASON_CODES;
 import org.apache.sling.auth.core.spi.JakartaAuthenticationHandler;
@@ -78,4 +82,33 @@ class LoginTest {
                 .thenReturn(reasonCode);
         assertEquals(expectedMsg, login.getReason());
     }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.models.Login#getReason()}.
+     */
+    @Test
+    void testGetReasonTooManyAttempts() {
+        Mockito.when(login.request.getParameter(JakartaAuthenticationHandler.FAILURE_REASON_CODE))
+                .thenReturn(FAILURE_REASON_CODES.INVALID_LOGIN.name());
+        Mockito.when(login.request.getParameter(JakartaAuthenticationHandler.FAILURE_REASON))
+                .thenReturn(Login.TOO_MANY_ATTEMPTS);
+        assertEquals("Too many login attempts, please try again later", login.getReason());
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.login.models.Login#getReasonsJson()}.
+     */
+    @Test
+    void testGetReasonsJson() {
+        JsonObject reasons;
+        try (JsonReader reader = Json.createReader(new StringReader(login.getReasonsJson()))) {
+            reasons = reader.readObject();
+        }
+        for (FAILURE_REASON_CODES code : FAILURE_REASON_CODES.values()) {
+            Mockito.when(login.request.getParameter(JakartaAuthenticationHandler.FAILURE_REASON_CODE))
+                    .thenReturn(code.name());
+            assertEquals(login.getReason(), reasons.getString(code.name(), login.getReason()));
+        }
+        assertEquals("User name and password do not match", reasons.getString(FAILURE_REASON_CODES.UNKNOWN.name()));
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.starter.startup.impl;
+
+import javax.jcr.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.starter.startup.impl.StartupProgress.Phase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupProgressTest {
+    private StartupProgress progress;
+    private BundleContext bundleContext;
+    private Bundle systemBundle;
+
+    @BeforeEach
+    void beforeEach() {
+        progress = new StartupProgress(System.currentTimeMillis());
+        bundleContext = Mockito.mock(BundleContext.class);
+        systemBundle = Mockito.mock(Bundle.class);
+        Mockito.when(bundleContext.getBundle(0)).thenReturn(systemBundle);
+    }
+
+    private void bindResolverFactory(boolean withMarker) throws LoginException {
+        ResourceResolverFactory factory = Mockito.mock(ResourceResolverFactory.class);
+        ResourceResolver resolver = Mockito.mock(ResourceResolver.class);
+        Mockito.when(factory.getServiceResourceResolver(
+                        Map.of(ResourceResolverFactory.SUBSERVICE, StartupProgress.SUBSERVICE_NAME)))
+                .thenReturn(resolver);
+        if (withMarker) {
+            Mockito.when(resolver.getResource(StartupProgress.READY_MARKER_PATH))
+                    .thenReturn(Mockito.mock(Resource.class));
+        }
+        progress.bindResourceResolverFactory(factory);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.startup.impl.StartupProgress#activate(org.osgi.framework.BundleContext)}.
+     */
+    @Test
+    void testActivate() throws LoginException {
+        bindResolverFactory(true);
+        Mockito.when(systemBundle.getState()).thenReturn(Bundle.ACTIVE);
+        progress.activate(bundleContext);
+        Mockito.verify(bundleContext).addFrameworkListener(progress);
+        assertEquals(
+                List.of(Phase.INITIAL_CONTENT_INSTALLED, Phase.BUNDLES_STARTED),
+                List.copyOf(progress.getReached().keySet()));
+
+        progress.deactivate();
+        Mockito.verify(bundleContext).removeFrameworkListener(progress);
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.startup.impl.StartupProgress#frameworkEvent(org.osgi.framework.FrameworkEvent)}.
+     */
+    @Test
+    void testFrameworkEvent() throws LoginException {
+        Mockito.when(systemBundle.getState()).thenReturn(Bundle.STARTING);
+        progress.activate(bundleContext);
+        assertTrue(progress.getReached().isEmpty());
+
+        progress.frameworkEvent(new FrameworkEvent(FrameworkEvent.PACKAGES_REFRESHED, systemBundle, null));
+        assertTrue(progress.getReached().isEmpty());
+        progress.frameworkEvent(new FrameworkEvent(FrameworkEvent.STARTED, systemBundle, null));
+        assertEquals(
+                List.of(Phase.BUNDLES_STARTED),
+                List.copyOf(progress.getReached().keySet()));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.startup.impl.StartupProgress#frameworkEvent(org.osgi.framework.FrameworkEvent)}
+     * when the initial content is there.
+     */
+    @Test
+    void testFrameworkEventWithInitialContent() throws LoginException {
+        bindResolverFactory(true);
+        Mockito.when(systemBundle.getState()).thenReturn(Bundle.STARTING);
+        progress.activate(bundleContext);
+        // the marker of an earlier start does not count before the bundles are started
+        assertTrue(progress.getReached().isEmpty());
+
+        progress.frameworkEvent(new FrameworkEvent(FrameworkEvent.STARTED, systemBundle, null));
+        assertEquals(
+                List.of(Phase.INITIAL_CONTENT_INSTALLED, Phase.BUNDLES_STARTED),
+                List.copyOf(progress.getReached().keySet()));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.startup.impl.StartupProgress#bindRepository(javax.jcr.Repository)}.
+     */
+    @Test
+    void testBindRepository() {
+        progress.bindRepository(Mockito.mock(Repository.class));
+        assertEquals(
+                List.of(Phase.REPOSITORY_READY),
+                List.copyOf(progress.getReached().keySet()));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.startup.impl.StartupProgress#onChange(java.util.List)}.
+     */
+    @Test
+    void testOnChange() {
+        progress.onChange(List.of());
+        assertTrue(progress.getReached().containsKey(Phase.INITIAL_CONTENT_INSTALLED));
+    }
+
+    /**
+     * Test method for {@link org.apache.sling.starter.startup.impl.StartupProgress#reach(org.apache.sling.starter.startup.impl.StartupProgress.Phase)}.
+     */
+    @Test
+    void testReach() {
+        progress.reach(Phase.REPOSITORY_READY);
+        long elapsed = progress.getReached().get(Phase.REPOSITORY_READY);
+
+        // a phase is only recorded once
+        progress.reach(Phase.REPOSITORY_READY);
+        assertEquals(elapsed, progress.getReached().get(Phase.REPOSITORY_READY));
+    }
+}